@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchTableWriter implements TableWriter {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private long rowCount;
+
+    public BatchTableWriter(Connection connection, String table, List<String> columns, int batchSize)
+            throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.statement = connection.prepareStatement(String.format("INSERT INTO %s (%s) VALUES (%s)",
+                table, String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?"))));
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+
+        statement.addBatch();
+
+        if (++rowCount % batchSize == 0) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (statement) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+}
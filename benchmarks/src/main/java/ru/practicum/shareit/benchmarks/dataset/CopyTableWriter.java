@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmarks.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class CopyTableWriter implements TableWriter {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Connection connection;
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+    private long rowCount;
+
+    public CopyTableWriter(Connection connection, String table, List<String> columns) throws SQLException {
+        this.connection = connection;
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(String.format(
+                "COPY %s (%s) FROM STDIN WITH (FORMAT csv)", table, String.join(", ", columns)));
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+
+            appendValue(values[i]);
+        }
+
+        buffer.append('\n');
+        rowCount++;
+
+        if (buffer.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+            connection.commit();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+
+        if (value instanceof String) {
+            buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(text);
+        }
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
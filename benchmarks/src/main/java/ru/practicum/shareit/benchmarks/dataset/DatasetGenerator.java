@@ -0,0 +1,217 @@
+package ru.practicum.shareit.benchmarks.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import ru.practicum.shareit.benchmarks.util.Arguments;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.util.geo.GeoGrid;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+@Slf4j
+public class DatasetGenerator {
+    private static final long MINUTES_IN_DAY = 24 * 60;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int users;
+    private final int owners;
+    private final int requests;
+    private final int items;
+    private final long bookings;
+    private final double commentShare;
+    private final double skew;
+    private final int batchSize;
+    private final Random random;
+    private final TextGenerator text;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public DatasetGenerator(Arguments arguments) {
+        this.url = arguments.getString("url", "jdbc:postgresql://localhost:6541/shareit");
+        this.username = arguments.getString("username", "shareit");
+        this.password = arguments.getString("password", "shareit");
+        this.users = arguments.getInt("users", 10_000);
+        this.owners = Math.max(1, (int) (users * arguments.getDouble("owner-share", 0.2)));
+        this.requests = arguments.getInt("requests", 5_000);
+        this.items = arguments.getInt("items", 50_000);
+        this.bookings = arguments.getLong("bookings", 1_000_000);
+        this.commentShare = arguments.getDouble("comment-share", 0.1);
+        this.skew = arguments.getDouble("skew", 2.5);
+        this.batchSize = arguments.getInt("batch-size", 5_000);
+        this.random = new Random(arguments.getLong("seed", 42));
+        this.text = new TextGenerator(random);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        new DatasetGenerator(new Arguments(args)).generate();
+    }
+
+    public void generate() throws SQLException {
+        long startedAt = System.nanoTime();
+
+        try (Connection connection = connect();
+             Connection commentsConnection = connect()) {
+            log.info("Loading dataset into {} using {}.", url, isPostgres(connection) ? "COPY" : "batched inserts");
+            loadUsers(connection);
+            loadRequests(connection);
+            loadItems(connection);
+            long comments = loadBookingsAndComments(connection, commentsConnection);
+            restartIdentity(connection, "users", users);
+            restartIdentity(connection, "requests", requests);
+            restartIdentity(connection, "items", items);
+            restartIdentity(connection, "bookings", bookings);
+            restartIdentity(connection, "comments", comments);
+            analyze(connection);
+        }
+
+        log.info("Dataset loaded in {} s.", (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+
+    private void loadUsers(Connection connection) throws SQLException {
+        try (TableWriter writer = writer(connection, "users", List.of("id", "name", "email"))) {
+            for (long id = 1; id <= users; id++) {
+                writer.row(id, text.personName(), "user" + id + "@shareit.ru");
+            }
+
+            log.info("Loaded {} users.", writer.getRowCount());
+        }
+    }
+
+    private void loadRequests(Connection connection) throws SQLException {
+        try (TableWriter writer = writer(connection, "requests",
+                List.of("id", "description", "requestor_id", "created"))) {
+            for (long id = 1; id <= requests; id++) {
+                writer.row(id, text.requestDescription(), randomUser(), now.minusMinutes(randomMinutes(365)));
+            }
+
+            log.info("Loaded {} requests.", writer.getRowCount());
+        }
+    }
+
+    private void loadItems(Connection connection) throws SQLException {
+        try (TableWriter writer = writer(connection, "items",
+                List.of("id", "name", "description", "available", "owner_id", "request_id",
+                        "latitude", "longitude", "grid_cell"))) {
+            for (long id = 1; id <= items; id++) {
+                String name = text.itemName();
+                Long requestId = requests > 0 && random.nextDouble() < 0.05 ? 1L + random.nextInt(requests) : null;
+                // Spread over the European part of Russia, roughly 2500 x 2000 km
+                double latitude = 45 + random.nextDouble() * 20;
+                double longitude = 30 + random.nextDouble() * 30;
+                writer.row(id, name, text.itemDescription(name), random.nextDouble() < 0.9, ownerOf(id), requestId,
+                        latitude, longitude, GeoGrid.cell(latitude, longitude));
+            }
+
+            log.info("Loaded {} items.", writer.getRowCount());
+        }
+    }
+
+    private long loadBookingsAndComments(Connection connection, Connection commentsConnection) throws SQLException {
+        try (TableWriter bookingWriter = writer(connection, "bookings",
+                     List.of("id", "start_date", "end_date", "item_id", "booker_id", "status", "version"));
+             TableWriter commentWriter = writer(commentsConnection, "comments",
+                     List.of("id", "text", "item_id", "author_id", "created"))) {
+            for (long id = 1; id <= bookings; id++) {
+                long itemId = popularItem();
+                long bookerId = bookerFor(itemId);
+                LocalDateTime start = now.plusMinutes(randomMinutes(455) - 365 * MINUTES_IN_DAY);
+                LocalDateTime end = start.plusMinutes(60 + randomMinutes(14));
+                BookingStatus status = randomStatus();
+                bookingWriter.row(id, start, end, itemId, bookerId, status.name(), 0);
+
+                if (status == BookingStatus.APPROVED && end.isBefore(now) && random.nextDouble() < commentShare) {
+                    commentWriter.row(commentWriter.getRowCount() + 1, text.review(), itemId, bookerId, end.plusHours(1));
+                }
+
+                if (id % 1_000_000 == 0) {
+                    log.info("Loaded {} bookings.", id);
+                }
+            }
+
+            log.info("Loaded {} bookings and {} comments.", bookingWriter.getRowCount(), commentWriter.getRowCount());
+            return commentWriter.getRowCount();
+        }
+    }
+
+    private long popularItem() {
+        long itemId = 1 + (long) (items * Math.pow(random.nextDouble(), skew));
+        return Math.min(itemId, items);
+    }
+
+    private long ownerOf(long itemId) {
+        return 1 + (itemId - 1) % owners;
+    }
+
+    private long bookerFor(long itemId) {
+        long bookerId = randomUser();
+        return bookerId == ownerOf(itemId) ? bookerId % users + 1 : bookerId;
+    }
+
+    private long randomUser() {
+        return 1L + random.nextInt(users);
+    }
+
+    private long randomMinutes(int days) {
+        return (long) (random.nextDouble() * days * MINUTES_IN_DAY);
+    }
+
+    private BookingStatus randomStatus() {
+        double value = random.nextDouble();
+
+        if (value < 0.7) {
+            return BookingStatus.APPROVED;
+        } else if (value < 0.85) {
+            return BookingStatus.WAITING;
+        } else if (value < 0.95) {
+            return BookingStatus.REJECTED;
+        }
+
+        return BookingStatus.CANCELED;
+    }
+
+    private TableWriter writer(Connection connection, String table, List<String> columns) throws SQLException {
+        if (isPostgres(connection)) {
+            return new CopyTableWriter(connection, table, columns);
+        }
+
+        return new BatchTableWriter(connection, table, columns, batchSize);
+    }
+
+    private void restartIdentity(Connection connection, String table, long rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("ALTER TABLE %s ALTER COLUMN id RESTART WITH %d", table, rows + 1));
+        }
+
+        connection.commit();
+    }
+
+    private void analyze(Connection connection) throws SQLException {
+        if (!isPostgres(connection)) {
+            return;
+        }
+
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.benchmarks.dataset;
+
+import java.sql.SQLException;
+
+public interface TableWriter extends AutoCloseable {
+
+    void row(Object... values) throws SQLException;
+
+    long getRowCount();
+
+    @Override
+    void close() throws SQLException;
+}
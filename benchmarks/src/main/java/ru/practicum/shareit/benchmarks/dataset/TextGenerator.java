@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmarks.dataset;
+
+import java.util.List;
+import java.util.Random;
+
+public class TextGenerator {
+    private static final List<String> FIRST_NAMES = List.of(
+            "Anna", "Boris", "Daria", "Egor", "Ivan", "Maria", "Nikita", "Olga", "Pavel", "Sofia",
+            "Timur", "Vera", "Alex", "Kate", "Leo", "Mila");
+    private static final List<String> LAST_NAMES = List.of(
+            "Ivanov", "Petrova", "Smirnov", "Kuznetsova", "Popov", "Volkova", "Sokolov", "Lebedeva",
+            "Kozlov", "Novikova", "Morozov", "Orlova");
+    private static final List<String> ADJECTIVES = List.of(
+            "cordless", "electric", "compact", "heavy-duty", "folding", "portable", "professional",
+            "vintage", "waterproof", "lightweight", "adjustable", "wireless");
+    private static final List<String> THINGS = List.of(
+            "drill", "ladder", "tent", "bicycle", "saw", "projector", "camera", "kayak", "grill", "vacuum cleaner",
+            "pressure washer", "sewing machine", "snowboard", "guitar", "telescope", "lawn mower", "speaker",
+            "sleeping bag", "jigsaw", "toolbox");
+    private static final List<String> DETAILS = List.of(
+            "with two batteries", "in good condition", "barely used", "with carrying case", "for weekend trips",
+            "with spare parts", "recently serviced", "with a charger", "for indoor use", "for outdoor use");
+    private static final List<String> REVIEWS = List.of(
+            "Worked perfectly, thanks!", "Exactly as described.", "A bit worn, but did the job.",
+            "Owner was very helpful.", "Would rent again.", "Battery died quickly.",
+            "Great value for a weekend project.", "Clean and in great shape.");
+
+    private final Random random;
+
+    public TextGenerator(Random random) {
+        this.random = random;
+    }
+
+    public String personName() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    public String itemName() {
+        return capitalize(pick(ADJECTIVES) + " " + pick(THINGS));
+    }
+
+    public String itemDescription(String itemName) {
+        return itemName + " " + pick(DETAILS) + ", " + pick(DETAILS);
+    }
+
+    public String requestDescription() {
+        return "Looking for a " + pick(ADJECTIVES) + " " + pick(THINGS) + " " + pick(DETAILS);
+    }
+
+    public String review() {
+        return pick(REVIEWS);
+    }
+
+    public String searchTerm() {
+        return pick(THINGS).split(" ")[0];
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmarks.fixture;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.request.model.entity.ItemRequest;
+import ru.practicum.shareit.user.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class BenchmarkFixtures {
+    public static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    public User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@shareit.ru")
+                .build();
+    }
+
+    public ItemRequest itemRequest(long id, User requestor) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Need a cordless drill #" + id)
+                .requestor(requestor)
+                .created(NOW.minusDays(id % 30))
+                .build();
+    }
+
+    public List<Item> items(int count, User owner, ItemRequest request) {
+        List<Item> items = new ArrayList<>(count);
+
+        for (long id = 1; id <= count; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("Drill " + id)
+                    .description("Cordless drill with two batteries, item #" + id)
+                    .available(id % 5 != 0)
+                    .owner(owner)
+                    .request(id % 2 == 0 ? request : null)
+                    .build());
+        }
+
+        return items;
+    }
+
+    public List<Booking> bookings(int count, Item item, User booker) {
+        List<Booking> bookings = new ArrayList<>(count);
+        LocalDateTime start = NOW.minusDays(count / 2);
+
+        for (long id = 1; id <= count; id++) {
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .start(start.plusDays(id))
+                    .end(start.plusDays(id).plusHours(12))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+
+        return bookings;
+    }
+}
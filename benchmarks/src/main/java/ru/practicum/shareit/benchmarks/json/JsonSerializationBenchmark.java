@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmarks.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.benchmarks.fixture.BenchmarkFixtures;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.user.model.entity.User;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    // Wire format between the gateway and the server, see SmileConfig.
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<ItemResponseDto> items;
+    private List<BookingResponseDto> bookings;
+    private byte[] encodedItems;
+    private byte[] encodedBookings;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = "smile".equals(format)
+                ? Jackson2ObjectMapperBuilder.smile()
+                : Jackson2ObjectMapperBuilder.json();
+        objectMapper = builder
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        User owner = BenchmarkFixtures.user(1L);
+        User booker = BenchmarkFixtures.user(2L);
+        List<Item> itemList = BenchmarkFixtures.items(size, owner, null);
+        items = ItemMapper.toItemResponseDto(itemList);
+        items.forEach(item -> ItemMapper.setLastAndNextBooking(item,
+                BenchmarkFixtures.bookings(2, itemList.get(0), booker), BenchmarkFixtures.NOW));
+        bookings = BookingMapper.toBookingResponseDto(BenchmarkFixtures.bookings(size, itemList.get(0), booker));
+
+        encodedItems = objectMapper.writeValueAsBytes(items);
+        encodedBookings = objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeItems(PayloadSize payloadSize) throws JsonProcessingException {
+        return payloadSize.record(objectMapper.writeValueAsBytes(items));
+    }
+
+    @Benchmark
+    public byte[] serializeBookings(PayloadSize payloadSize) throws JsonProcessingException {
+        return payloadSize.record(objectMapper.writeValueAsBytes(bookings));
+    }
+
+    // The gateway reads server responses into untyped maps before writing them to the client.
+    @Benchmark
+    public Object deserializeItems() throws IOException {
+        return objectMapper.readValue(encodedItems, Object.class);
+    }
+
+    @Benchmark
+    public Object deserializeBookings() throws IOException {
+        return objectMapper.readValue(encodedBookings, Object.class);
+    }
+
+    // Reported next to the timings as the "bytes" secondary result: the size of one serialized body.
+    // JMH sums event counters over measurement iterations, threads and forks, so each of them adds its share.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public double bytes;
+        private int samples;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams benchmarkParams) {
+            samples = benchmarkParams.getMeasurement().getCount() * benchmarkParams.getThreads()
+                    * Math.max(1, benchmarkParams.getForks());
+        }
+
+        byte[] record(byte[] body) {
+            bytes = (double) body.length / samples;
+            return body;
+        }
+    }
+}
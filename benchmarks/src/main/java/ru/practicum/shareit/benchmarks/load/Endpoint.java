@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import ru.practicum.shareit.benchmarks.dataset.TextGenerator;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum Endpoint {
+    ITEMS("items") {
+        @Override
+        public String path(TextGenerator text) {
+            return "/items?from=0&size=10";
+        }
+    },
+    SEARCH("search") {
+        @Override
+        public String path(TextGenerator text) {
+            return "/items/search?text=" + text.searchTerm() + "&from=0&size=10";
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        public String path(TextGenerator text) {
+            return "/bookings?state=ALL&from=0&size=10";
+        }
+    },
+    OWNER_BOOKINGS("owner") {
+        @Override
+        public String path(TextGenerator text) {
+            return "/bookings/owner?state=ALL&from=0&size=10";
+        }
+    },
+    REQUESTS("requests") {
+        @Override
+        public String path(TextGenerator text) {
+            return "/requests/all?from=0&size=10";
+        }
+    };
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public abstract String path(TextGenerator text);
+
+    public static Optional<Endpoint> from(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
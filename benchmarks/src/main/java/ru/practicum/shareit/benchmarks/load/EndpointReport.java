@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import lombok.*;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class EndpointReport {
+    private String endpoint;
+    private long requests;
+    private long errors;
+    private double throughput;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+
+    public static EndpointReport of(String endpoint, LatencyStats stats, double seconds) {
+        return EndpointReport.builder()
+                .endpoint(endpoint)
+                .requests(stats.getCount())
+                .errors(stats.getErrors())
+                .throughput(stats.getCount() / seconds)
+                .p50(stats.percentileMillis(50))
+                .p90(stats.percentileMillis(90))
+                .p99(stats.percentileMillis(99))
+                .p999(stats.percentileMillis(99.9))
+                .max(stats.percentileMillis(100))
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+
+public class LatencyStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted;
+
+    public void record(long latencyNanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+
+        latencies[count++] = latencyNanos;
+        sorted = false;
+    }
+
+    public void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], true);
+        }
+
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        if (!sorted) {
+            Arrays.sort(latencies, 0, count);
+            sorted = true;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return latencies[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LoadMix {
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    public LoadMix(String mix) {
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(String.format("Mix entry '%s' must look like endpoint:weight.", entry));
+            }
+
+            Endpoint endpoint = Endpoint.from(parts[0]).orElseThrow(() ->
+                    new IllegalArgumentException(String.format("Unknown endpoint: %s.", parts[0])));
+            int weight = Integer.parseInt(parts[1]);
+
+            if (weight <= 0) {
+                continue;
+            }
+
+            totalWeight += weight;
+            endpoints.add(endpoint);
+            cumulativeWeights.add(totalWeight);
+        }
+
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain at least one endpoint with a positive weight.");
+        }
+    }
+
+    public Endpoint next(Random random) {
+        int value = random.nextInt(totalWeight);
+
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (value < cumulativeWeights.get(i)) {
+                return endpoints.get(i);
+            }
+        }
+
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+}
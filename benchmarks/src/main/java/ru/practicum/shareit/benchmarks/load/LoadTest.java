@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.benchmarks.dataset.TextGenerator;
+import ru.practicum.shareit.benchmarks.util.Arguments;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@Slf4j
+public class LoadTest {
+    private final String url;
+    private final int users;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration timeout;
+    private final LoadMix mix;
+    private final long seed;
+    private final String output;
+    private final HttpClient httpClient;
+
+    public LoadTest(Arguments arguments) {
+        this.url = arguments.getString("url", "http://localhost:8080");
+        this.users = arguments.getInt("users", 10_000);
+        this.concurrency = arguments.getInt("concurrency", 32);
+        this.warmup = arguments.getDuration("warmup", Duration.ofSeconds(10));
+        this.duration = arguments.getDuration("duration", Duration.ofSeconds(60));
+        this.timeout = arguments.getDuration("timeout", Duration.ofSeconds(10));
+        this.mix = new LoadMix(arguments.getString("mix", "items:30,search:20,bookings:20,owner:20,requests:10"));
+        this.seed = arguments.getLong("seed", 42);
+        this.output = arguments.getString("output", "target/load-result.json");
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(new Arguments(args)).run();
+        System.exit(0);
+    }
+
+    public List<EndpointReport> run() throws InterruptedException, ExecutionException, IOException {
+        log.info("Running load test against {}: {} workers, warmup {}, duration {}.",
+                url, concurrency, warmup, duration);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        List<Future<Map<Endpoint, LatencyStats>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(seed + i);
+            futures.add(workers.submit(() -> work(random, measureFrom, measureTo)));
+        }
+
+        Map<Endpoint, LatencyStats> statsByEndpoint = new EnumMap<>(Endpoint.class);
+        LatencyStats total = new LatencyStats();
+
+        for (Future<Map<Endpoint, LatencyStats>> future : futures) {
+            for (Map.Entry<Endpoint, LatencyStats> entry : future.get().entrySet()) {
+                statsByEndpoint.computeIfAbsent(entry.getKey(), endpoint -> new LatencyStats()).merge(entry.getValue());
+                total.merge(entry.getValue());
+            }
+        }
+
+        workers.shutdown();
+        double seconds = duration.toMillis() / 1000.0;
+        List<EndpointReport> reports = new ArrayList<>();
+        statsByEndpoint.forEach((endpoint, stats) -> reports.add(EndpointReport.of(endpoint.getKey(), stats, seconds)));
+        reports.add(EndpointReport.of("total", total, seconds));
+        print(reports);
+        write(reports);
+        return reports;
+    }
+
+    private Map<Endpoint, LatencyStats> work(Random random, long measureFrom, long measureTo) {
+        TextGenerator text = new TextGenerator(random);
+        Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+        long now = System.nanoTime();
+
+        while (now < measureTo) {
+            Endpoint endpoint = mix.next(random);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + endpoint.path(text)))
+                    .header(OWNER_ID_HEADER, String.valueOf(1 + random.nextInt(users)))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+            boolean success;
+
+            try {
+                success = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            long finished = System.nanoTime();
+
+            if (now >= measureFrom) {
+                stats.computeIfAbsent(endpoint, key -> new LatencyStats()).record(finished - now, success);
+            }
+
+            now = finished;
+        }
+
+        return stats;
+    }
+
+    private void print(List<EndpointReport> reports) {
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (EndpointReport report : reports) {
+            table.append(String.format("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    report.getEndpoint(), report.getRequests(), report.getErrors(), report.getThroughput(),
+                    report.getP50(), report.getP90(), report.getP99(), report.getP999(), report.getMax()));
+        }
+
+        log.info(table.toString());
+    }
+
+    private void write(List<EndpointReport> reports) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("url", url);
+        result.put("concurrency", concurrency);
+        result.put("warmupSeconds", warmup.toSeconds());
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("endpoints", reports);
+
+        File file = new File(output);
+
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file, result);
+        log.info("Load test results saved to {}.", file.getAbsolutePath());
+    }
+}
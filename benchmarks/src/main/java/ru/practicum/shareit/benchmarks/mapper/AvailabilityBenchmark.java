@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.benchmarks.fixture.BenchmarkFixtures;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AvailabilityBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int bookingsPerItem;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TimeSlotDto> bookings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        from = BenchmarkFixtures.NOW;
+        to = from.plusDays(366);
+        bookings = new ArrayList<>(bookingsPerItem);
+        LocalDateTime start = from.minusDays(1);
+
+        // Sorted by start, like the repository query, with overlaps and gaps of up to a few hours
+        for (int i = 0; i < bookingsPerItem; i++) {
+            start = start.plusMinutes(random.nextInt(180));
+            bookings.add(new TimeSlotDto(start, start.plusMinutes(30 + random.nextInt(240))));
+        }
+    }
+
+    @Benchmark
+    public ItemAvailabilityDto toItemAvailabilityDto() {
+        return ItemMapper.toItemAvailabilityDto(1L, from, to, bookings);
+    }
+}
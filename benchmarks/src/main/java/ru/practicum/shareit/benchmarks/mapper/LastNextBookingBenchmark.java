@@ -0,0 +1,42 @@
+package ru.practicum.shareit.benchmarks.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.benchmarks.fixture.BenchmarkFixtures;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.user.model.entity.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LastNextBookingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int bookingsPerItem;
+
+    private Item item;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        User owner = BenchmarkFixtures.user(1L);
+        User booker = BenchmarkFixtures.user(2L);
+        item = BenchmarkFixtures.items(1, owner, null).get(0);
+        bookings = BenchmarkFixtures.bookings(bookingsPerItem, item, booker);
+    }
+
+    @Benchmark
+    public ItemResponseDto setLastAndNextBooking() {
+        ItemResponseDto itemResponseDto = ItemMapper.toItemResponseDto(item);
+        ItemMapper.setLastAndNextBooking(itemResponseDto, bookings, BenchmarkFixtures.NOW);
+        return itemResponseDto;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmarks.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.benchmarks.fixture.BenchmarkFixtures;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.dto.ItemResponseShortDto;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.entity.ItemRequest;
+import ru.practicum.shareit.user.model.entity.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<ItemRequest> itemRequests;
+    private List<ItemResponseShortDto> requestItems;
+
+    @Setup
+    public void setUp() {
+        User owner = BenchmarkFixtures.user(1L);
+        User booker = BenchmarkFixtures.user(2L);
+        ItemRequest itemRequest = BenchmarkFixtures.itemRequest(1L, booker);
+        items = BenchmarkFixtures.items(size, owner, itemRequest);
+        bookings = BenchmarkFixtures.bookings(size, items.get(0), booker);
+        itemRequests = List.of(itemRequest);
+        requestItems = ItemMapper.toItemResponseShortDto(items);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingToResponseDto() {
+        return BookingMapper.toBookingResponseDto(bookings);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> itemToResponseDto() {
+        return ItemMapper.toItemResponseDto(items);
+    }
+
+    @Benchmark
+    public List<ItemResponseShortDto> itemToResponseShortDto() {
+        return ItemMapper.toItemResponseShortDto(items);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> itemRequestToDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequests, requestItems);
+    }
+}
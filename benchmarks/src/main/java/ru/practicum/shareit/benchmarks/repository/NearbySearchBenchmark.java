@@ -0,0 +1,180 @@
+package ru.practicum.shareit.benchmarks.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.benchmarks.dataset.TextGenerator;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.geo.GeoGrid;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compares the nearby item search that reads whole grid cells and ranks them in memory with
+// ItemRepository.searchNear, which narrows the cells down to the bounding box and orders and pages by
+// distance in SQL. Search points fall inside the area DatasetGenerator spreads items over. Needs PostgreSQL
+// filled by DatasetGenerator, so it is excluded from the default JMH run.
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearbySearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final Pattern PARAMETER = Pattern.compile("\\?(\\d+)");
+    private static final int CELLS_PARAMETER = 2;
+    private static final String CELLS = "?cells";
+    private static final String CELLS_QUERY = "SELECT i.* FROM items i " +
+            "WHERE i.grid_cell IN (%s) " +
+            "AND i.available = true " +
+            "AND (lower(i.name) LIKE lower(concat('%%', ?, '%%')) " +
+            "OR lower(i.description) LIKE lower(concat('%%', ?, '%%')))";
+
+    @Param("jdbc:postgresql://localhost:6541/shareit")
+    private String url;
+
+    @Param("shareit")
+    private String username;
+
+    @Param("shareit")
+    private String password;
+
+    @Param({"5", "25"})
+    private double radius;
+
+    @Param({"false", "true"})
+    private boolean inSql;
+
+    private final Random random = new Random(42);
+    private final TextGenerator text = new TextGenerator(random);
+    private Connection connection;
+    private String nearQuery;
+    private List<Integer> nearParameters;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, username, password);
+        nearParameters = new ArrayList<>();
+        nearQuery = toJdbc(searchNearQuery() + " LIMIT " + PAGE_SIZE, nearParameters);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int searchNear() throws SQLException {
+        double latitude = 45 + random.nextDouble() * 20;
+        double longitude = 30 + random.nextDouble() * 30;
+        String searchTerm = text.searchTerm();
+        List<Long> cells = GeoGrid.cellsWithin(latitude, longitude, radius);
+
+        return inSql
+                ? searchInSql(searchTerm, cells, latitude, longitude)
+                : searchInMemory(searchTerm, cells, latitude, longitude);
+    }
+
+    // The previous implementation: every matching item of the cells is read, then filtered, sorted and paged
+    private int searchInMemory(String searchTerm, List<Long> cells, double latitude, double longitude)
+            throws SQLException {
+        String query = String.format(CELLS_QUERY, placeholders(cells.size()));
+        List<double[]> candidates = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+
+            for (Long cell : cells) {
+                statement.setLong(index++, cell);
+            }
+
+            statement.setString(index++, searchTerm);
+            statement.setString(index, searchTerm);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    candidates.add(new double[]{resultSet.getLong("id"), GeoGrid.distanceKm(latitude, longitude,
+                            resultSet.getDouble("latitude"), resultSet.getDouble("longitude"))});
+                }
+            }
+        }
+
+        return (int) candidates.stream()
+                .filter(candidate -> candidate[1] <= radius)
+                .sorted(Comparator.comparingDouble((double[] candidate) -> candidate[1])
+                        .thenComparingDouble(candidate -> candidate[0]))
+                .limit(PAGE_SIZE)
+                .count();
+    }
+
+    private int searchInSql(String searchTerm, List<Long> cells, double latitude, double longitude)
+            throws SQLException {
+        GeoGrid.Box box = GeoGrid.boxAround(latitude, longitude, radius);
+        Object[] values = {searchTerm, cells, latitude, longitude, radius,
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude()};
+        int rows = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                nearQuery.replace(CELLS, placeholders(cells.size())))) {
+            int index = 1;
+
+            for (int parameter : nearParameters) {
+                Object value = values[parameter - 1];
+
+                if (value instanceof List) {
+                    for (Object cell : (List<?>) value) {
+                        statement.setObject(index++, cell);
+                    }
+                } else {
+                    statement.setObject(index++, value);
+                }
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows++;
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    // Benchmarks the query the repository runs rather than a copy of it
+    private static String searchNearQuery() {
+        return Arrays.stream(ItemRepository.class.getMethods())
+                .filter(method -> method.getName().equals("searchNear"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("ItemRepository.searchNear is missing"))
+                .getAnnotation(Query.class)
+                .value();
+    }
+
+    // Turns JPA ordinal parameters into JDBC ones and records which value each of them takes. The cells
+    // collection is expanded per search, as Hibernate does.
+    private static String toJdbc(String query, List<Integer> parameters) {
+        Matcher matcher = PARAMETER.matcher(query);
+        StringBuilder jdbcQuery = new StringBuilder();
+
+        while (matcher.find()) {
+            int parameter = Integer.parseInt(matcher.group(1));
+            parameters.add(parameter);
+            matcher.appendReplacement(jdbcQuery, parameter == CELLS_PARAMETER ? CELLS : "?");
+        }
+
+        matcher.appendTail(jdbcQuery);
+        return jdbcQuery.toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
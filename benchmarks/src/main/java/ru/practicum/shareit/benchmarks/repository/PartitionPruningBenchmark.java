@@ -0,0 +1,178 @@
+package ru.practicum.shareit.benchmarks.repository;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.util.constants.BookingConstants;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compares booking state queries on the partitioned bookings table and its plain copy, with and without
+// the start date bounds used by BookingServiceImpl. The lower bound is the longest booking in the data, as
+// BookingDurationBound derives it. Needs PostgreSQL filled by DatasetGenerator, so it is excluded from
+// the default JMH run.
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PartitionPruningBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final String FLAT_TABLE = "bookings_flat";
+
+    @Param("jdbc:postgresql://localhost:6541/shareit")
+    private String url;
+
+    @Param("shareit")
+    private String username;
+
+    @Param("shareit")
+    private String password;
+
+    @Param({FLAT_TABLE, "bookings"})
+    private String table;
+
+    @Param({"CURRENT", "FUTURE", "PAST"})
+    private BookingState state;
+
+    @Param({"false", "true"})
+    private boolean bounded;
+
+    private final Random random = new Random(42);
+    private Connection connection;
+    private PreparedStatement statement;
+    private int users;
+    private Duration durationBound;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, username, password);
+        ensureFlatCopy();
+        users = queryInt("SELECT max(id) FROM users");
+        durationBound = Duration.ofSeconds(Math.max(BookingConstants.MIN_DURATION_BOUND.getSeconds(),
+                queryInt("SELECT EXTRACT(EPOCH FROM max(end_date - start_date)) FROM bookings")));
+        statement = connection.prepareStatement(query());
+        checkPruning();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int findBookingsByState() throws SQLException {
+        bind(statement, 1L + random.nextInt(users));
+        int rows = 0;
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+
+        return rows;
+    }
+
+    private String query() {
+        String condition;
+
+        switch (state) {
+            case CURRENT:
+                condition = bounded
+                        ? "start_date > ? AND start_date < ? AND end_date > ?"
+                        : "start_date < ? AND end_date > ?";
+                break;
+            case FUTURE:
+                condition = "start_date > ?";
+                break;
+            default:
+                condition = bounded
+                        ? "start_date < ? AND end_date < ?"
+                        : "end_date < ?";
+        }
+
+        return String.format("SELECT id, start_date, end_date, item_id, booker_id, status FROM %s " +
+                "WHERE booker_id = ? AND %s ORDER BY start_date DESC LIMIT %d", table, condition, PAGE_SIZE);
+    }
+
+    private void bind(PreparedStatement preparedStatement, long bookerId) throws SQLException {
+        LocalDateTime dateTime = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(dateTime);
+        int index = 1;
+        preparedStatement.setLong(index++, bookerId);
+
+        if (bounded && state == BookingState.CURRENT) {
+            preparedStatement.setTimestamp(index++, Timestamp.valueOf(dateTime.minus(durationBound)));
+        }
+
+        preparedStatement.setTimestamp(index++, now);
+
+        if (state != BookingState.FUTURE && (bounded || state == BookingState.CURRENT)) {
+            preparedStatement.setTimestamp(index, now);
+        }
+    }
+
+    private void ensureFlatCopy() throws SQLException {
+        try (Statement ddl = connection.createStatement();
+             ResultSet resultSet = ddl.executeQuery("SELECT to_regclass('" + FLAT_TABLE + "')")) {
+            resultSet.next();
+
+            if (resultSet.getString(1) != null) {
+                return;
+            }
+        }
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE " + FLAT_TABLE + " AS SELECT * FROM bookings");
+            ddl.execute("ALTER TABLE " + FLAT_TABLE + " ADD PRIMARY KEY (id)");
+            ddl.execute("CREATE INDEX ON " + FLAT_TABLE + " (booker_id, start_date DESC)");
+            ddl.execute("CREATE INDEX ON " + FLAT_TABLE + " (item_id, start_date DESC)");
+            ddl.execute("ANALYZE " + FLAT_TABLE);
+        }
+    }
+
+    // A bounded CURRENT query covers only months that have their own partitions, so PostgreSQL must skip
+    // the default partition. Otherwise the bounded numbers measure nothing and the trial fails.
+    private void checkPruning() throws SQLException {
+        if (!bounded || state != BookingState.CURRENT || FLAT_TABLE.equals(table)) {
+            return;
+        }
+
+        String plan = plan();
+
+        if (plan.contains("bookings_default")) {
+            throw new IllegalStateException(String.format("Bounded %s query on %s scans the default partition:%n%s",
+                    state, table, plan));
+        }
+    }
+
+    String plan() throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (COSTS OFF) " + query())) {
+            bind(explain, 1L);
+
+            try (ResultSet resultSet = explain.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append(System.lineSeparator());
+                }
+
+                return plan.toString();
+            }
+        }
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Statement query = connection.createStatement();
+             ResultSet resultSet = query.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.benchmarks.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.entity.Comment;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+    private static final int OWNERS = 50;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"20"})
+    private int itemsPerOwner;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private List<Long> ownerIds;
+    private List<Long> ownerItemIds;
+    private int nextOwner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "logging.level.root=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> seed());
+
+        ownerItemIds = itemRepository.findItemsByOwnerIdOrderByIdAsc(ownerIds.get(0), new OffsetPageRequest(0, PAGE_SIZE))
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> itemServiceGetAll() {
+        Long ownerId = ownerIds.get(nextOwner++ % ownerIds.size());
+        return itemService.getAll(ownerId, 0, PAGE_SIZE, null);
+    }
+
+    // Sparse fieldset: the bookings and comments queries are skipped
+    @Benchmark
+    public List<ItemResponseDto> itemServiceGetAllIdAndName() {
+        Long ownerId = ownerIds.get(nextOwner++ % ownerIds.size());
+        return itemService.getAll(ownerId, 0, PAGE_SIZE, "id,name");
+    }
+
+    @Benchmark
+    public List<Booking> findApprovedBookingsForItems() {
+        return bookingRepository.findAllByItemIdInAndStatusOrderByStartAsc(ownerItemIds, BookingStatus.APPROVED);
+    }
+
+    @Benchmark
+    public List<Item> searchItems() {
+        return itemRepository.search("drill", new OffsetPageRequest(0, PAGE_SIZE));
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        User booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("booker@shareit.ru")
+                .build());
+        ownerIds = new ArrayList<>();
+
+        for (int o = 0; o < OWNERS; o++) {
+            User owner = userRepository.save(User.builder()
+                    .name("Owner " + o)
+                    .email("owner" + o + "@shareit.ru")
+                    .build());
+            ownerIds.add(owner.getId());
+
+            for (int i = 0; i < itemsPerOwner; i++) {
+                Item item = itemRepository.save(Item.builder()
+                        .name("Drill " + o + "-" + i)
+                        .description("Cordless drill with two batteries")
+                        .available(true)
+                        .owner(owner)
+                        .build());
+                List<Booking> bookings = new ArrayList<>(bookingsPerItem);
+
+                for (int b = 0; b < bookingsPerItem; b++) {
+                    LocalDateTime start = now.plusDays(b - bookingsPerItem / 2);
+                    bookings.add(Booking.builder()
+                            .start(start)
+                            .end(start.plusHours(12))
+                            .item(item)
+                            .booker(booker)
+                            .status(BookingStatus.APPROVED)
+                            .build());
+                }
+
+                bookingRepository.saveAll(bookings);
+                commentRepository.save(Comment.builder()
+                        .text("Works great")
+                        .item(item)
+                        .author(booker)
+                        .created(now)
+                        .build());
+            }
+        }
+    }
+}
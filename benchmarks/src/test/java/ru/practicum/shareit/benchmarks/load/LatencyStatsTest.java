@@ -0,0 +1,34 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@DisplayName("LatencyStats tests")
+class LatencyStatsTest {
+
+    @Test
+    @DisplayName("should compute percentiles over merged stats")
+    void percentileMillis_Merged() {
+        // given
+        LatencyStats first = new LatencyStats();
+        LatencyStats second = new LatencyStats();
+
+        for (int i = 1; i <= 50; i++) {
+            first.record(i * 1_000_000L, true);
+            second.record((i + 50) * 1_000_000L, i % 10 != 0);
+        }
+
+        // when
+        first.merge(second);
+
+        // then
+        assertThat(first.getCount(), equalTo(100));
+        assertThat(first.getErrors(), equalTo(5L));
+        assertThat(first.percentileMillis(50), equalTo(50.0));
+        assertThat(first.percentileMillis(99), equalTo(99.0));
+        assertThat(first.percentileMillis(100), equalTo(100.0));
+    }
+}
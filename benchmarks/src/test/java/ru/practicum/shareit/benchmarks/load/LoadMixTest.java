@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("LoadMix tests")
+class LoadMixTest {
+
+    @Test
+    @DisplayName("'next' should follow the configured weights")
+    void next_FollowsWeights() {
+        // given
+        LoadMix mix = new LoadMix("items:75,search:25,owner:0");
+        Random random = new Random(42);
+        Map<Endpoint, Integer> hits = new EnumMap<>(Endpoint.class);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            hits.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        // then
+        assertThat(mix.getEndpoints(), contains(Endpoint.ITEMS, Endpoint.SEARCH));
+        assertThat(hits.get(Endpoint.ITEMS), allOf(greaterThan(7_000), lessThan(8_000)));
+        assertThat(hits.get(Endpoint.SEARCH), allOf(greaterThan(2_000), lessThan(3_000)));
+    }
+
+    @Test
+    @DisplayName("should throw exception when endpoint is unknown")
+    void create_UnknownEndpoint() {
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new LoadMix("items:10,unknown:5"));
+
+        // then
+        assertThat(exception.getMessage(), equalTo("Unknown endpoint: unknown."));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util.compression;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    // Runs outside the filters that buffer or replay the body, so they keep working with uncompressed bytes.
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.compression.min-response-size:2048}") int minResponseSize,
+            @Value("${shareit.compression.mime-types:application/json,application/x-jackson-smile,application/x-ndjson,text/csv}")
+            List<MediaType> mimeTypes) {
+        FilterRegistrationBean<CompressionFilter> registration =
+                new FilterRegistrationBean<>(new CompressionFilter(meterRegistry, minResponseSize, mimeTypes));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
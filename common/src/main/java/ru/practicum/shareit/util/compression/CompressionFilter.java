@@ -0,0 +1,101 @@
+package ru.practicum.shareit.util.compression;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class CompressionFilter extends OncePerRequestFilter {
+    public static final String RATIO_SUMMARY = "shareit.compression.ratio";
+    public static final String CPU_TIMER = "shareit.compression.cpu";
+    private static final String GZIP = "gzip";
+
+    private final MeterRegistry meterRegistry;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    // An async handler keeps writing after the first dispatch returns, so the body is finished on the last
+    // dispatch, which gets the wrapper created by the first one.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CompressionResponseWrapper responseWrapper =
+                WebUtils.getNativeResponse(response, CompressionResponseWrapper.class);
+
+        if (responseWrapper == null) {
+            responseWrapper = new CompressionResponseWrapper(response, minResponseSize, mimeTypes);
+        }
+
+        filterChain.doFilter(request, responseWrapper);
+
+        if (isAsyncStarted(request)) {
+            return;
+        }
+
+        responseWrapper.finish();
+
+        if (responseWrapper.isCompressed()) {
+            record(request, responseWrapper);
+        }
+    }
+
+    private void record(HttpServletRequest request, CompressionResponseWrapper responseWrapper) {
+        String uri = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), "UNKNOWN");
+
+        DistributionSummary.builder(RATIO_SUMMARY)
+                .description("Compressed to original response size")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record((double) responseWrapper.getCompressedBytes() / responseWrapper.getOriginalBytes());
+        Timer.builder(CPU_TIMER)
+                .description("CPU time spent compressing a response")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(responseWrapper.getCpuNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+
+            if ((GZIP.equalsIgnoreCase(name) || "*".equals(name)) && !refused) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
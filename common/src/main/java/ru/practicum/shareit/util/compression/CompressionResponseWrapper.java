@@ -0,0 +1,291 @@
+package ru.practicum.shareit.util.compression;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Buffers the body until it reaches the threshold, then streams it through gzip. Smaller bodies and
+// bodies of other content types are written as they are, with their original Content-Length.
+// A body written with a write listener is not compressed, it goes straight to the container stream.
+class CompressionResponseWrapper extends HttpServletResponseWrapper {
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final ServletOutputStream outputStream = new CompressionOutputStream();
+    private PrintWriter writer;
+    private OutputStream target;
+    private GZIPOutputStream gzip;
+    private long contentLength = -1;
+    private long originalBytes;
+    private long compressedBytes;
+    private long cpuNanos;
+
+    CompressionResponseWrapper(HttpServletResponse response, int minResponseSize, List<MediaType> mimeTypes) {
+        super(response);
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    boolean isCompressed() {
+        return gzip != null;
+    }
+
+    long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        if (target == null) {
+            if (contentLength < 0 && buffer.size() > 0) {
+                contentLength = buffer.size();
+            }
+            start(false);
+        }
+
+        if (gzip != null) {
+            long started = cpuTime();
+            gzip.finish();
+            cpuNanos += cpuTime() - started;
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        if (target != null) {
+            outputStream.flush();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        buffer.reset();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        buffer.reset();
+        contentLength = -1;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (target == null) {
+            contentLength = len;
+        } else if (gzip == null) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    private void start(boolean compress) throws IOException {
+        byte[] buffered = buffer.toByteArray();
+        buffer.reset();
+
+        if (compress && isCompressible()) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            gzip = new GZIPOutputStream(new CountingOutputStream(super.getOutputStream()), GZIP_BUFFER_SIZE, true);
+            target = gzip;
+            compress(buffered, 0, buffered.length);
+            return;
+        }
+
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+        target = super.getOutputStream();
+        target.write(buffered);
+    }
+
+    private boolean isCompressible() {
+        if (getContentType() == null || containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+
+        MediaType contentType = MediaType.parseMediaType(getContentType());
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    private void compress(byte[] bytes, int offset, int length) throws IOException {
+        long started = cpuTime();
+        gzip.write(bytes, offset, length);
+        cpuNanos += cpuTime() - started;
+    }
+
+    private ServletOutputStream containerOutputStream() throws IOException {
+        return super.getOutputStream();
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private class CompressionOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            originalBytes += length;
+
+            if (target == null) {
+                buffer.write(bytes, offset, length);
+
+                if (buffer.size() >= minResponseSize) {
+                    start(true);
+                }
+            } else if (gzip != null) {
+                compress(bytes, offset, length);
+            } else {
+                target.write(bytes, offset, length);
+            }
+        }
+
+        // While the body is still buffered a flush would only commit the headers too early.
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            if (target == null) {
+                return true;
+            }
+
+            try {
+                return containerOutputStream().isReady();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // The buffered bytes are written before the listener is set, while the container stream still blocks
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (target == null) {
+                    start(false);
+                }
+
+                containerOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private class CountingOutputStream extends FilterOutputStream {
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            compressedBytes++;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            compressedBytes += length;
+            out.write(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit.util.compression;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("CompressionFilter tests")
+class CompressionFilterTest {
+    private static final int MIN_RESPONSE_SIZE = 1024;
+
+    private MeterRegistry meterRegistry;
+    private CompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new CompressionFilter(meterRegistry, MIN_RESPONSE_SIZE, List.of(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("should gzip a large response in chunks and record ratio and CPU time")
+    void largeResponse_Compressed() throws Exception {
+        // given
+        String body = "{\"name\":\"item\"},".repeat(500);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(gzipRequest(), response, chain(MediaType.APPLICATION_JSON_VALUE, body));
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), equalTo("gzip"));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH), nullValue());
+        assertThat(response.getContentAsByteArray().length, lessThan(body.length()));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+        assertThat(meterRegistry.get(CompressionFilter.RATIO_SUMMARY).summary().count(), equalTo(1L));
+        assertThat(meterRegistry.get(CompressionFilter.CPU_TIMER).timer().count(), equalTo(1L));
+    }
+
+    @Test
+    @DisplayName("should write a response below the threshold as it is")
+    void smallResponse_NotCompressed() throws Exception {
+        // given
+        String body = "{\"name\":\"item\"}";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(gzipRequest(), response, chain(MediaType.APPLICATION_JSON_VALUE, body));
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentLength(), equalTo(body.length()));
+        assertThat(response.getContentAsString(), equalTo(body));
+        assertThat(meterRegistry.find(CompressionFilter.RATIO_SUMMARY).summary(), nullValue());
+    }
+
+    @Test
+    @DisplayName("should not compress content types outside the configured list")
+    void otherContentType_NotCompressed() throws Exception {
+        // given
+        String body = "x".repeat(MIN_RESPONSE_SIZE * 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(gzipRequest(), response, chain(MediaType.IMAGE_PNG_VALUE, body));
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(body));
+    }
+
+    @Test
+    @DisplayName("should not compress when the client does not accept gzip")
+    void gzipNotAccepted_NotCompressed() throws Exception {
+        // given
+        String body = "x".repeat(MIN_RESPONSE_SIZE * 2);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, chain(MediaType.APPLICATION_JSON_VALUE, body));
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(body));
+    }
+
+    @Test
+    @DisplayName("should finish an async response on the async dispatch")
+    void asyncResponse_FinishedOnAsyncDispatch() throws Exception {
+        // given
+        String body = "{\"name\":\"item\"},".repeat(500);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = gzipRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<HttpServletResponse> asyncResponses = new ArrayList<>();
+
+        // when
+        filter.doFilter(request, response, (req, res) -> {
+            StandardServletAsyncWebRequest asyncWebRequest =
+                    new StandardServletAsyncWebRequest((HttpServletRequest) req, (HttpServletResponse) res);
+            WebAsyncUtils.getAsyncManager(req).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            asyncResponses.add((HttpServletResponse) res);
+        });
+        boolean recordedBeforeDispatch = meterRegistry.find(CompressionFilter.RATIO_SUMMARY).summary() != null;
+        asyncResponses.get(0).getOutputStream().write(bytes);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, asyncResponses.get(0), (req, res) -> {
+        });
+
+        // then
+        assertThat(recordedBeforeDispatch, equalTo(false));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), equalTo("gzip"));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+        assertThat(meterRegistry.get(CompressionFilter.RATIO_SUMMARY).summary().count(), equalTo(1L));
+    }
+
+    @Test
+    @DisplayName("should write a body with a write listener to the container stream uncompressed")
+    void writeListener_NotCompressed() throws Exception {
+        // given
+        String body = "x".repeat(MIN_RESPONSE_SIZE * 2);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        NonBlockingResponse response = new NonBlockingResponse();
+        WriteListener writeListener = mock(WriteListener.class);
+
+        // when
+        filter.doFilter(gzipRequest(), response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(bytes, 0, 100);
+            res.getOutputStream().setWriteListener(writeListener);
+            res.getOutputStream().write(bytes, 100, bytes.length - 100);
+        });
+
+        // then
+        assertThat(response.writeListener, equalTo(writeListener));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), equalTo(body));
+        assertThat(meterRegistry.find(CompressionFilter.RATIO_SUMMARY).summary(), nullValue());
+    }
+
+    private static MockHttpServletRequest gzipRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    private static FilterChain chain(String contentType, String body) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            response.setContentLength(body.length());
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+            for (int offset = 0; offset < bytes.length; offset += 100) {
+                response.getOutputStream().write(bytes, offset, Math.min(100, bytes.length - offset));
+            }
+            response.flushBuffer();
+        };
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // The mock stream refuses write listeners, a container stream accepts them
+    private static class NonBlockingResponse extends MockHttpServletResponse {
+        private WriteListener writeListener;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            ServletOutputStream outputStream = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    outputStream.write(b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    outputStream.write(bytes, offset, length);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    writeListener = listener;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.util.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("VirtualThreadsConfig tests")
+class VirtualThreadsConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    @DisplayName("platform thread mode should leave the Tomcat executor alone")
+    void platformMode_NoCustomizer() {
+        contextRunner
+                .withPropertyValues("shareit.threads.mode=platform")
+                .run(context -> assertThat(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).size(),
+                        equalTo(0)));
+    }
+
+    // Virtual threads exist since Java 21. Either runtime is checked, so the test runs on whichever JDK builds it.
+    @Test
+    @DisplayName("virtual thread mode should run requests on virtual threads or fail fast without them")
+    void virtualMode_DependsOnRuntime() {
+        contextRunner
+                .withPropertyValues("shareit.threads.mode=virtual")
+                .run(context -> {
+                    if (Runtime.version().feature() < 21) {
+                        assertThat(context.getStartupFailure().getMessage(),
+                                containsString("requires Java 21 or newer"));
+                        return;
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    TomcatProtocolHandlerCustomizer<ProtocolHandler> customizer =
+                            context.getBean(TomcatProtocolHandlerCustomizer.class);
+                    ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+                    customizer.customize(protocolHandler);
+                    ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+                    verify(protocolHandler).setExecutor(executor.capture());
+
+                    Object isVirtual = ((ExecutorService) executor.getValue())
+                            .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                            .get(5, TimeUnit.SECONDS);
+                    assertThat(isVirtual, equalTo(true));
+                });
+    }
+}
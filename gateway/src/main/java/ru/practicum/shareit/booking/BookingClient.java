@@ -4,27 +4,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.validator.fields.FieldsValidator.validateFields;
+import static ru.practicum.shareit.util.validator.ids.IdsValidator.validateIds;
 import static ru.practicum.shareit.util.validator.pagination.PaginationValidator.validateSize;
+import static ru.practicum.shareit.util.validator.period.PeriodValidator.validatePeriod;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -40,27 +46,65 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getByBookerId(Long userId, BookingState state, Integer from, Integer size) {
-        validateSize(size);
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getByBookerId(Long userId, BookingState state, Long itemId, LocalDateTime start,
+                                                LocalDateTime end, Integer from, Integer size, String fields) {
+        return getByState("", userId, state, itemId, start, end, from, size, fields);
+    }
+
+    public ResponseEntity<Object> getByOwnerId(Long userId, BookingState state, Long itemId, LocalDateTime start,
+                                               LocalDateTime end, Integer from, Integer size, String fields) {
+        return getByState("/owner", userId, state, itemId, start, end, from, size, fields);
+    }
+
+    public ResponseEntity<Object> getCountsByBookerId(Long userId) {
+        return get("/counts", userId);
     }
 
-    public ResponseEntity<Object> getByOwnerId(Long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getCountsByOwnerId(Long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<Object> getById(Long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public ResponseEntity<Object> getByIds(Long userId, List<Long> ids) {
+        return get("?ids={ids}", userId, Map.of("ids", validateIds(ids)));
+    }
+
+    private ResponseEntity<Object> getByState(String path, Long userId, BookingState state, Long itemId,
+                                              LocalDateTime start, LocalDateTime end, Integer from, Integer size,
+                                              String fields) {
         validateSize(size);
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
-    }
+        ));
+        StringBuilder query = new StringBuilder(path).append("?state={state}&from={from}&size={size}");
 
-    public ResponseEntity<Object> getById(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+        if (itemId != null) {
+            parameters.put("itemId", itemId);
+            query.append("&itemId={itemId}");
+        }
+
+        if (start != null || end != null) {
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("Both start and end of the period must be set.");
+            }
+
+            validatePeriod(start, end);
+            parameters.put("start", start);
+            parameters.put("end", end);
+            query.append("&start={start}&end={end}");
+        }
+
+        if (fields != null) {
+            validateFields(fields);
+            parameters.put("fields", fields);
+            query.append("&fields={fields}");
+        }
+
+        return get(query.toString(), userId, parameters);
     }
 }
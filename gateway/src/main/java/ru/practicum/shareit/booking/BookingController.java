@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -11,10 +12,16 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+import static ru.practicum.shareit.util.constants.RequestParamConstants.MAX_IDS;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -45,24 +52,54 @@ public class BookingController {
 	public ResponseEntity<Object> getByBookerId(
 			@RequestHeader(OWNER_ID_HEADER) Long userId,
 			@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+			@RequestParam(required = false) Long itemId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "fields", required = false) String fields) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException(String.format("Unknown state: %s", stateParam)));
 		log.info("GET request to get all bookings by booker with ID: {}.", userId);
-		return bookingClient.getByBookerId(userId, state, from, size);
+		return bookingClient.getByBookerId(userId, state, itemId, start, end, from, size, fields);
 	}
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getByOwnerId(
 			@RequestHeader(OWNER_ID_HEADER) Long userId,
 			@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+			@RequestParam(required = false) Long itemId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "fields", required = false) String fields) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException(String.format("Unknown state: %s", stateParam)));
 		log.info("GET request to get all bookings by owner with ID: {}.", userId);
-		return bookingClient.getByOwnerId(userId, state, from, size);
+		return bookingClient.getByOwnerId(userId, state, itemId, start, end, from, size, fields);
+	}
+
+	@GetMapping("/counts")
+	public ResponseEntity<Object> getCountsByBookerId(
+			@RequestHeader(OWNER_ID_HEADER) Long userId) {
+		log.info("GET request to count bookings by booker with ID: {}.", userId);
+		return bookingClient.getCountsByBookerId(userId);
+	}
+
+	@GetMapping("/owner/counts")
+	public ResponseEntity<Object> getCountsByOwnerId(
+			@RequestHeader(OWNER_ID_HEADER) Long userId) {
+		log.info("GET request to count bookings by owner with ID: {}.", userId);
+		return bookingClient.getCountsByOwnerId(userId);
+	}
+
+	@GetMapping(params = "ids")
+	public ResponseEntity<Object> getByIds(
+			@RequestHeader(OWNER_ID_HEADER) Long userId,
+			@NotEmpty @Size(max = MAX_IDS) @RequestParam List<Long> ids) {
+		log.info("Get bookings {}, userId={}", ids, userId);
+		return bookingClient.getByIds(userId, ids);
 	}
 
 	@GetMapping("{bookingId}")
@@ -1,20 +1,38 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.IDEMPOTENCY_KEY_HEADER;
 import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+import static ru.practicum.shareit.util.serialization.SmileConfig.APPLICATION_SMILE;
 
 public class BaseClient {
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -69,44 +87,145 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(String path, Long userId, Map<String, Object> parameters, HttpServletResponse response) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setAccept(List.of(MediaType.ALL));
+        };
+        ResponseExtractor<Void> responseExtractor = shareitServerResponse -> {
+            response.setStatus(shareitServerResponse.getRawStatusCode());
+            copyHeader(shareitServerResponse.getHeaders(), response, HttpHeaders.CONTENT_TYPE);
+            copyHeader(shareitServerResponse.getHeaders(), response, HttpHeaders.CONTENT_DISPOSITION);
+            StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        };
+
+        try {
+            rest.execute(path, HttpMethod.GET, requestCallback, responseExtractor, parameters);
+        } catch (HttpStatusCodeException e) {
+            try {
+                response.setStatus(e.getRawStatusCode());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getOutputStream().write(e.getResponseBodyAsByteArray());
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+    }
+
+    private static void copyHeader(HttpHeaders headers, HttpServletResponse response, String name) {
+        String value = headers.getFirst(name);
+        if (value != null) {
+            response.setHeader(name, value);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        // Clients that accept Smile themselves get the server bytes as they are, the rest get them transcoded to JSON.
+        Class<?> responseType = clientAcceptsSmile() ? byte[].class : Object.class;
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<?> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareErrorResponse(e);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(APPLICATION_SMILE);
+        headers.setAccept(List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set(OWNER_ID_HEADER, String.valueOf(userId));
         }
+        forwardIdempotencyKey(headers);
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static void forwardIdempotencyKey(HttpHeaders headers) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        if (idempotencyKey == null || !HttpMethod.POST.matches(request.getMethod())) {
+            return;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format("%s must be between 1 and %d characters.",
+                    IDEMPOTENCY_KEY_HEADER, MAX_IDEMPOTENCY_KEY_LENGTH));
+        }
+
+        headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static boolean clientAcceptsSmile() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return false;
         }
 
-        return responseBuilder.build();
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+
+        if (accept == null) {
+            return false;
+        }
+
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(APPLICATION_SMILE));
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+            if (response.hasBody()) {
+                return responseBuilder.body(response.getBody());
+            }
+
+            return responseBuilder.build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+
+        if (!(response.getBody() instanceof byte[])) {
+            // The body is encoded again by the gateway, so the server framing headers no longer describe it.
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private static ResponseEntity<Object> prepareErrorResponse(HttpStatusCodeException e) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(e.getStatusCode());
+        MediaType contentType = e.getResponseHeaders() != null ? e.getResponseHeaders().getContentType() : null;
+
+        if (contentType == null || !contentType.equalsTypeAndSubtype(APPLICATION_SMILE) || clientAcceptsSmile()) {
+            if (contentType != null) {
+                responseBuilder.contentType(contentType);
+            }
+            return responseBuilder.body(e.getResponseBodyAsByteArray());
+        }
+
+        try {
+            return responseBuilder.body(SMILE_MAPPER.readValue(e.getResponseBodyAsByteArray(), Object.class));
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
     }
 
     protected ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters) {
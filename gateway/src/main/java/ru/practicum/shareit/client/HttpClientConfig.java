@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public ClientHttpRequestFactory shareItServerRequestFactory(
+            @Value("${shareit-server.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.connect-timeout:5000}") int connectTimeout,
+            @Value("${shareit-server.read-timeout:30000}") int readTimeout,
+            @Value("${shareit-server.compression:true}") boolean compression) {
+        return createRequestFactory(maxConnections, connectTimeout, readTimeout, compression);
+    }
+
+    // With compression the client sends Accept-Encoding: gzip,deflate and decompresses responses transparently.
+    public static ClientHttpRequestFactory createRequestFactory(int maxConnections, int connectTimeout, int readTimeout,
+                                                                boolean compression) {
+        return createRequestFactory(createConnectionManager(maxConnections), connectTimeout, readTimeout, compression);
+    }
+
+    public static PoolingHttpClientConnectionManager createConnectionManager(int maxConnections) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return connectionManager;
+    }
+
+    public static ClientHttpRequestFactory createRequestFactory(PoolingHttpClientConnectionManager connectionManager,
+                                                                int connectTimeout, int readTimeout, boolean compression) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+
+        HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS);
+
+        if (!compression) {
+            httpClientBuilder.disableContentCompression();
+        }
+
+        return new HttpComponentsClientHttpRequestFactory(httpClientBuilder.build());
+    }
+}
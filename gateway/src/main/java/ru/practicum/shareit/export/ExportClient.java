@@ -0,0 +1,49 @@
+package ru.practicum.shareit.export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.export.dto.ExportFormat;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+@Service
+public class ExportClient extends BaseClient {
+    private static final String API_PREFIX = "/export";
+
+    @Autowired
+    public ExportClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+    }
+
+    public void exportBookingsByBookerId(Long userId, ExportFormat format, HttpServletResponse response) {
+        Map<String, Object> parameters = Map.of(
+                "format", format.name()
+        );
+        stream("/bookings?format={format}", userId, parameters, response);
+    }
+
+    public void exportBookingsByOwnerId(Long userId, ExportFormat format, HttpServletResponse response) {
+        Map<String, Object> parameters = Map.of(
+                "format", format.name()
+        );
+        stream("/bookings/owner?format={format}", userId, parameters, response);
+    }
+
+    public void exportItemsByOwnerId(Long userId, ExportFormat format, HttpServletResponse response) {
+        Map<String, Object> parameters = Map.of(
+                "format", format.name()
+        );
+        stream("/items?format={format}", userId, parameters, response);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.export;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.export.dto.ExportFormat;
+
+import javax.servlet.http.HttpServletResponse;
+
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@Slf4j
+@RestController
+@AllArgsConstructor
+@RequestMapping("/export")
+public class ExportController {
+    private final ExportClient exportClient;
+
+    @GetMapping("/bookings")
+    public void exportBookingsByBookerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String formatParam,
+            HttpServletResponse response) {
+        log.info("GET request to export all bookings by booker with ID: {} as {}.", userId, formatParam);
+        exportClient.exportBookingsByBookerId(userId, toExportFormat(formatParam), response);
+    }
+
+    @GetMapping("/bookings/owner")
+    public void exportBookingsByOwnerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String formatParam,
+            HttpServletResponse response) {
+        log.info("GET request to export all bookings by owner with ID: {} as {}.", userId, formatParam);
+        exportClient.exportBookingsByOwnerId(userId, toExportFormat(formatParam), response);
+    }
+
+    @GetMapping("/items")
+    public void exportItemsByOwnerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String formatParam,
+            HttpServletResponse response) {
+        log.info("GET request to export all items by owner with ID: {} as {}.", userId, formatParam);
+        exportClient.exportItemsByOwnerId(userId, toExportFormat(formatParam), response);
+    }
+
+    private ExportFormat toExportFormat(String formatParam) {
+        return ExportFormat.from(formatParam)
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown format: %s", formatParam)));
+    }
+}
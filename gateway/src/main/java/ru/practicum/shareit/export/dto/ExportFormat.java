@@ -0,0 +1,17 @@
+package ru.practicum.shareit.export.dto;
+
+import java.util.Optional;
+
+public enum ExportFormat {
+    JSON,
+    CSV;
+
+    public static Optional<ExportFormat> from(String stringFormat) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(stringFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -4,16 +4,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.validator.fields.FieldsValidator.validateFields;
+import static ru.practicum.shareit.util.validator.ids.IdsValidator.validateIds;
+import static ru.practicum.shareit.util.validator.location.LocationValidator.validateNear;
 import static ru.practicum.shareit.util.validator.pagination.PaginationValidator.validateSize;
+import static ru.practicum.shareit.util.validator.period.PeriodValidator.validatePeriod;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -21,11 +28,11 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -38,30 +45,72 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAll(Long userId, Integer from, Integer size, String fields) {
         validateSize(size);
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        String path = "?from={from}&size={size}";
+
+        if (fields != null) {
+            validateFields(fields);
+            parameters.put("fields", fields);
+            path += "&fields={fields}";
+        }
+
+        return get(path, userId, parameters);
     }
 
     public ResponseEntity<Object> getById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getByIds(Long userId, List<Long> ids) {
+        return get("?ids={ids}", userId, Map.of("ids", validateIds(ids)));
+    }
+
+    public ResponseEntity<Object> searchItem(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                             List<Double> near, Double radius, Integer from, Integer size) {
         validateSize(size);
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}");
+
+        if (start != null || end != null) {
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("Both start and end of the period must be set.");
+            }
+
+            validatePeriod(start, end);
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path.append("&start={start}&end={end}");
+        }
+
+        if (near != null || radius != null) {
+            validateNear(near, radius);
+            parameters.put("near", near.get(0) + "," + near.get(1));
+            parameters.put("radius", radius);
+            path.append("&near={near}&radius={radius}");
+        }
+
+        return get(path.toString(), userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
 }
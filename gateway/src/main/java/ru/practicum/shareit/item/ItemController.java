@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -10,12 +11,16 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+import static ru.practicum.shareit.util.constants.RequestParamConstants.MAX_IDS;
 
 @Slf4j
 @Validated
@@ -47,9 +52,18 @@ public class ItemController {
     public ResponseEntity<Object> getAllByUserId(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("GET request to get all items by user with ID: {}.", userId);
-        return itemClient.getAll(userId, from, size);
+        return itemClient.getAll(userId, from, size, fields);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getByIds(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @NotEmpty @Size(max = MAX_IDS) @RequestParam List<Long> ids) {
+        log.info("GET request to get items with IDs: {}.", ids);
+        return itemClient.getByIds(userId, ids);
     }
 
     @GetMapping("{itemId}")
@@ -64,6 +78,10 @@ public class ItemController {
     public ResponseEntity<Object> search(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @RequestParam(value = "text") String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) List<Double> near,
+            @RequestParam(required = false) Double radius,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET request to get all items by search criteria: {}.", text);
@@ -72,7 +90,7 @@ public class ItemController {
             return ResponseEntity.status(HttpStatus.OK).body(List.of());
         }
 
-        return itemClient.searchItem(userId, text, from, size);
+        return itemClient.searchItem(userId, text, start, end, near, radius, from, size);
     }
 
     @PostMapping("{itemId}/comment")
@@ -83,4 +101,14 @@ public class ItemController {
         log.info("POST request to add comment from user with ID: {}.", userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET request to get availability of item with ID: {} from {} to {}.", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
 }
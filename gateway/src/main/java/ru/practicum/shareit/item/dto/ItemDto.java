@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.*;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
@@ -22,4 +24,12 @@ public class ItemDto {
     private Boolean available;
 
     private Long requestId;
+
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90.")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90.")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180.")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180.")
+    private Double longitude;
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.stats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ru.practicum.shareit.util.validator.period.PeriodValidator.validateMonths;
+
+@Service
+public class StatsClient extends BaseClient {
+    private static final String API_PREFIX = "/stats";
+
+    @Autowired
+    public StatsClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> getItemStats(Long userId, YearMonth from, YearMonth to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/items");
+
+        // Without bounds the server returns the last twelve months
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Both first and last month must be set.");
+            }
+
+            validateMonths(from, to);
+            parameters.put("from", from);
+            parameters.put("to", to);
+            path.append("?from={from}&to={to}");
+        }
+
+        return get(path.toString(), userId, parameters);
+    }
+}
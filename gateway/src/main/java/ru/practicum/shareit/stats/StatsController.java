@@ -0,0 +1,27 @@
+package ru.practicum.shareit.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@Slf4j
+@RestController
+@AllArgsConstructor
+@RequestMapping("/stats")
+public class StatsController {
+    private final StatsClient statsClient;
+
+    @GetMapping("/items")
+    public ResponseEntity<Object> getItemStats(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "from", required = false) YearMonth from,
+            @RequestParam(name = "to", required = false) YearMonth to) {
+        log.info("GET request to get item statistics of owner with ID: {} from {} to {}.", userId, from, to);
+        return statsClient.getItemStats(userId, from, to);
+    }
+}
@@ -4,22 +4,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+
+import static ru.practicum.shareit.util.validator.ids.IdsValidator.validateIds;
+import static ru.practicum.shareit.util.validator.pagination.PaginationValidator.validateSize;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -32,14 +39,28 @@ public class UserClient extends BaseClient {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("/");
+    // The server writes the users while reading them, the body is copied through without buffering
+    public void getAll(HttpServletResponse response) {
+        stream("", null, Map.of(), response);
+    }
+
+    public ResponseEntity<Object> getPage(Long afterId, Integer size) {
+        validateSize(size);
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?afterId={afterId}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> getById(Long userId) {
         return get("/" + userId);
     }
 
+    public ResponseEntity<Object> getByIds(List<Long> ids) {
+        return get("?ids={ids}", null, Map.of("ids", validateIds(ids)));
+    }
+
     public void deleteById(Long userId) {
         delete("/" + userId);
     }
@@ -9,7 +9,17 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.util.markers.Create;
 import ru.practicum.shareit.util.markers.Update;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static ru.practicum.shareit.util.constants.RequestParamConstants.MAX_IDS;
+
 @Slf4j
+@Validated
 @RestController
 @AllArgsConstructor
 @RequestMapping("/users")
@@ -30,10 +40,26 @@ public class UserController {
         return userClient.update(userId, userDto);
     }
 
-    @GetMapping
-    public ResponseEntity<Object> getAll() {
+    // The whole table is streamed only when no paging or ID parameter is given, so afterId on its own
+    // still gets a bounded page
+    @GetMapping(params = {"!ids", "!afterId", "!size"})
+    public void getAll(HttpServletResponse response) {
         log.info("GET request to get all users.");
-        return userClient.getAll();
+        userClient.getAll(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> getPage(
+            @PositiveOrZero @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET request to get {} users after ID: {}.", size, afterId);
+        return userClient.getPage(afterId, size);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getByIds(@NotEmpty @Size(max = MAX_IDS) @RequestParam List<Long> ids) {
+        log.info("GET request to get users with IDs: {}.", ids);
+        return userClient.getByIds(ids);
     }
 
     @GetMapping("{userId}")
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.util.constants;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class RequestParamConstants {
+    // Upper bound for the ids of one multi-get request, the server loads them with a single IN query
+    public static final int MAX_IDS = 100;
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+    public static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    @Bean(destroyMethod = "close")
+    public SdkTracerProvider sdkTracerProvider(ObjectProvider<SpanExporter> spanExporters,
+                                               @Value("${shareit.tracing.service-name:shareit-gateway}") String serviceName,
+                                               @Value("${shareit.tracing.batch-export:true}") boolean batchExport) {
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(SERVICE_NAME, serviceName))));
+        spanExporters.orderedStream().forEach(spanExporter -> builder.addSpanProcessor(batchExport
+                ? BatchSpanProcessor.builder(spanExporter).build()
+                : SimpleSpanProcessor.create(spanExporter)));
+        return builder.build();
+    }
+
+    @Bean
+    public OpenTelemetry openTelemetry(SdkTracerProvider sdkTracerProvider) {
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(sdkTracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer("ru.practicum.shareit");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.file")
+    public SpanExporter fileSpanExporter(@Value("${shareit.tracing.file}") String file) {
+        return new FileSpanExporter(Path.of(file));
+    }
+
+    @Bean
+    public RestTemplateCustomizer tracingRestTemplateCustomizer(OpenTelemetry openTelemetry, Tracer tracer) {
+        TracingClientInterceptor interceptor = new TracingClientInterceptor(openTelemetry, tracer);
+        return restTemplate -> restTemplate.getInterceptors().add(interceptor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(OpenTelemetry openTelemetry, Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(openTelemetry, tracer));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
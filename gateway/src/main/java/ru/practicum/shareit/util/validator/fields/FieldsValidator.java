@@ -0,0 +1,14 @@
+package ru.practicum.shareit.util.validator.fields;
+
+import java.util.regex.Pattern;
+
+public class FieldsValidator {
+    private static final Pattern FIELDS_PATTERN = Pattern.compile("[A-Za-z]+( *, *[A-Za-z]+)*");
+
+    // Only the syntax is checked here, the server knows which fields each response has
+    public static void validateFields(String fields) {
+        if (fields != null && !FIELDS_PATTERN.matcher(fields.trim()).matches()) {
+            throw new IllegalArgumentException("Fields must be a comma-separated list of field names.");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.util.validator.ids;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class IdsValidator {
+    public static final int MAX_IDS = 100;
+
+    public static String validateIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException(String.format("From 1 to %d ids must be requested.", MAX_IDS));
+        }
+
+        if (ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new IllegalArgumentException("Ids must be positive numbers.");
+        }
+
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+}
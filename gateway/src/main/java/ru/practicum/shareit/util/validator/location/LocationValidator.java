@@ -0,0 +1,21 @@
+package ru.practicum.shareit.util.validator.location;
+
+import java.util.List;
+
+public class LocationValidator {
+    public static final double MAX_RADIUS_KM = 50;
+
+    public static void validateNear(List<Double> near, Double radius) {
+        if (near == null || near.size() != 2 || radius == null) {
+            throw new IllegalArgumentException("Search near a point needs 'near' as latitude,longitude and 'radius'.");
+        }
+
+        if (Math.abs(near.get(0)) > 90 || Math.abs(near.get(1)) > 180) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
+
+        if (radius <= 0 || radius > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException(String.format("Radius must be positive and not greater than %.0f km.", MAX_RADIUS_KM));
+        }
+    }
+}
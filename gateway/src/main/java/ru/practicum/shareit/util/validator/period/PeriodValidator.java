@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util.validator.period;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+public class PeriodValidator {
+    public static final Duration MAX_PERIOD = Duration.ofDays(366);
+    public static final int MAX_MONTHS = 24;
+
+    public static void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the period must be before its end.");
+        }
+
+        if (Duration.between(from, to).compareTo(MAX_PERIOD) > 0) {
+            throw new IllegalArgumentException(String.format("The period can't be longer than %d days.", MAX_PERIOD.toDays()));
+        }
+    }
+
+    public static void validateMonths(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The first month must not be after the last one.");
+        }
+
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new IllegalArgumentException(String.format("The period can't be longer than %d months.", MAX_MONTHS));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.in;
+
+@DisplayName("BaseClient load tests")
+class BaseClientLoadTest {
+    private static final int CONCURRENT_CALLS = 50;
+    private static final int SEQUENTIAL_CALLS = 20;
+
+    private final Set<Integer> firstRoundPorts = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> secondRoundPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer upstream;
+    private ExecutorService callers;
+    private volatile CyclicBarrier barrier;
+    private volatile Set<Integer> seenPorts;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_CALLS);
+        upstream.setExecutor(Executors.newFixedThreadPool(CONCURRENT_CALLS));
+        upstream.createContext("/", exchange -> {
+            seenPorts.add(exchange.getRemoteAddress().getPort());
+            int status = 200;
+            CyclicBarrier current = barrier;
+            if (current != null) {
+                // Answers only once every call is in flight, so each one must hold its own connection
+                try {
+                    current.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    status = 500;
+                }
+            }
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        callers = Executors.newFixedThreadPool(CONCURRENT_CALLS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("pooled client should hold concurrent calls on separate connections and reuse them afterwards")
+    void concurrentCalls_ReusePooledConnections() throws Exception {
+        // given
+        PoolingHttpClientConnectionManager connectionManager = HttpClientConfig.createConnectionManager(CONCURRENT_CALLS);
+        TestClient client = createClient(connectionManager);
+
+        // when
+        runConcurrentCalls(client, callers);
+        runSequentialCalls(client);
+
+        // then
+        assertPoolReused(connectionManager);
+    }
+
+    private TestClient createClient(PoolingHttpClientConnectionManager connectionManager) {
+        String url = "http://localhost:" + upstream.getAddress().getPort();
+        return new TestClient(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(url))
+                .requestFactory(() -> HttpClientConfig.createRequestFactory(connectionManager, 5000, 30000, true))
+                .build());
+    }
+
+    private void runConcurrentCalls(TestClient client, ExecutorService executor) throws Exception {
+        barrier = new CyclicBarrier(CONCURRENT_CALLS);
+        seenPorts = firstRoundPorts;
+        List<Callable<ResponseEntity<Object>>> calls = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            calls.add(() -> client.get("/items/1", 1L));
+        }
+
+        for (Future<ResponseEntity<Object>> response : executor.invokeAll(calls)) {
+            assertThat(response.get().getStatusCodeValue(), equalTo(200));
+        }
+    }
+
+    private void runSequentialCalls(TestClient client) {
+        barrier = null;
+        seenPorts = secondRoundPorts;
+        for (int i = 0; i < SEQUENTIAL_CALLS; i++) {
+            assertThat(client.get("/items/1", 1L).getStatusCodeValue(), equalTo(200));
+        }
+    }
+
+    private void assertPoolReused(PoolingHttpClientConnectionManager connectionManager) {
+        assertThat(firstRoundPorts.size(), equalTo(CONCURRENT_CALLS));
+        assertThat(secondRoundPorts, everyItem(in(firstRoundPorts)));
+        assertThat(connectionManager.getTotalStats().getLeased(), equalTo(0));
+        assertThat(connectionManager.getTotalStats().getAvailable(), equalTo(CONCURRENT_CALLS));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        @Override
+        protected ResponseEntity<Object> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static ru.practicum.shareit.util.serialization.SmileConfig.APPLICATION_SMILE;
+
+@DisplayName("BaseClient tests")
+class BaseClientTest {
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
+    private HttpServer upstream;
+    private TestClient client;
+    private byte[] itemBody;
+    private volatile String receivedAccept;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        itemBody = SMILE_MAPPER.writeValueAsBytes(Map.of("id", 1, "start", "2026-01-01T10:00:00"));
+        byte[] errorBody = SMILE_MAPPER.writeValueAsBytes(Map.of("error", "Item not found."));
+
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/", exchange -> {
+            receivedAccept = exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT);
+            boolean found = exchange.getRequestURI().getPath().equals("/items/1");
+            byte[] body = found ? itemBody : errorBody;
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, APPLICATION_SMILE.toString());
+            exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+
+        client = new TestClient(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:" + upstream.getAddress().getPort()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("should request Smile from the server and transcode it for JSON clients")
+    void get_SmileTranscoded() {
+        // when
+        ResponseEntity<Object> response = client.get("/items/1", 1L);
+
+        // then
+        assertThat(receivedAccept, startsWith(APPLICATION_SMILE.toString()));
+        assertThat(response.getBody(), equalTo(Map.of("id", 1, "start", "2026-01-01T10:00:00")));
+        assertThat(response.getHeaders().getContentType(), nullValue());
+    }
+
+    @Test
+    @DisplayName("should pass Smile through when the client accepts it")
+    void get_SmilePassedThrough() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader(HttpHeaders.ACCEPT, APPLICATION_SMILE.toString());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // when
+        ResponseEntity<Object> response = client.get("/items/1", 1L);
+
+        // then
+        assertThat(response.getBody(), equalTo(itemBody));
+        assertThat(response.getHeaders().getContentType(), equalTo(APPLICATION_SMILE));
+    }
+
+    @Test
+    @DisplayName("should transcode Smile error bodies for JSON clients")
+    void get_SmileErrorTranscoded() {
+        // when
+        ResponseEntity<Object> response = client.get("/items/2", 1L);
+
+        // then
+        assertThat(response.getStatusCodeValue(), equalTo(404));
+        assertThat(response.getBody(), instanceOf(Map.class));
+        assertThat(response.getBody(), equalTo(Map.of("error", "Item not found.")));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        @Override
+        protected ResponseEntity<Object> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@DisplayName("TracingClientInterceptor tests")
+class TracingClientInterceptorTest {
+    private InMemorySpanExporter spanExporter;
+    private Tracer tracer;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        spanExporter = InMemorySpanExporter.create();
+        OpenTelemetry openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                        .build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+        tracer = openTelemetry.getTracer("test");
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new TracingClientInterceptor(openTelemetry, tracer));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    @DisplayName("should send traceparent of a client span that is a child of the current span")
+    void intercept_PropagatesTraceparent() {
+        // given
+        AtomicReference<String> traceparent = new AtomicReference<>();
+        server.expect(requestTo("http://localhost:9090/bookings/owner"))
+                .andExpect(request -> traceparent.set(request.getHeaders().getFirst("traceparent")))
+                .andRespond(withSuccess());
+        Span parent = tracer.spanBuilder("GET /bookings/owner").startSpan();
+
+        // when
+        try (Scope ignored = parent.makeCurrent()) {
+            restTemplate.getForEntity("http://localhost:9090/bookings/owner", String.class);
+        } finally {
+            parent.end();
+        }
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans, hasSize(2));
+        SpanData client = spans.get(0);
+        assertThat(client.getKind(), equalTo(SpanKind.CLIENT));
+        assertThat(client.getParentSpanId(), equalTo(parent.getSpanContext().getSpanId()));
+        assertThat(traceparent.get(), equalTo(String.format("00-%s-%s-01", client.getTraceId(), client.getSpanId())));
+        server.verify();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingDurationBound bookingDurationBound;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterMonths;
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           BookingDurationBound bookingDurationBound,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.archive.after-months:12}") int afterMonths,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.bookingDurationBound = bookingDurationBound;
+        this.transactionTemplate = transactionTemplate;
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval:PT1H}",
+            initialDelayString = "${shareit.booking.archive.interval:PT1H}")
+    public int archive() {
+        return archive(LocalDateTime.now());
+    }
+
+    // Bookings are moved oldest start first, so every archived booking starts before every booking left
+    // in the table and listings can simply continue into the archive. No stored booking lasts longer than
+    // the duration bound, so anything that started before the cutoff ended at least afterMonths ago.
+    public int archive(LocalDateTime now) {
+        LocalDateTime cutoff = bookingDurationBound.earliestStart(now.minusMonths(afterMonths));
+        int archived = 0;
+        int moved;
+
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} bookings started before {}.", archived, cutoff);
+        }
+
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> bookingIds = bookingRepository.findIdsByStartBefore(cutoff, PageRequest.of(0, batchSize));
+
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+
+        bookingArchiveRepository.copyFromBookings(bookingIds);
+        bookingRepository.deleteAllByIdInBatch(bookingIds);
+        return bookingIds.size();
+    }
+}
@@ -2,12 +2,16 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
@@ -37,24 +41,54 @@ public class BookingController {
         return bookingService.updateStatus(userId, bookingId, approved);
     }
 
+    @GetMapping(params = "ids")
+    public MultiGetResponseDto<BookingResponseDto> getByIds(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam List<Long> ids) {
+        log.info("GET request to get bookings with IDs: {}.", ids);
+        return bookingService.getByIds(userId, ids);
+    }
+
     @GetMapping
     public List<BookingResponseDto> getByBookerId(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("GET request to get all bookings by booker with ID: {}.", userId);
-        return bookingService.getByBookerId(userId, state, from, size);
+        return bookingService.getByBookerId(userId, state, itemId, start, end, from, size, fields);
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> getByOwnerId(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("GET request to get all bookings by owner with ID: {}.", userId);
-        return bookingService.getByOwnerId(userId, state, from, size);
+        return bookingService.getByOwnerId(userId, state, itemId, start, end, from, size, fields);
+    }
+
+    @GetMapping("/counts")
+    public BookingCountsDto getCountsByBookerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("GET request to count bookings by booker with ID: {}.", userId);
+        return bookingService.getCountsByBookerId(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingCountsDto getCountsByOwnerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("GET request to count bookings by owner with ID: {}.", userId);
+        return bookingService.getCountsByOwnerId(userId);
     }
 
     @GetMapping("{bookingId}")
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.duration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.constants.BookingConstants;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Booking queries bound start_date from below, so PostgreSQL can skip old partitions: a booking that overlaps
+// a moment started at most the longest booking before it. The longest duration is taken from the data instead
+// of being enforced on new bookings. It is read at startup, raised by every booking this instance creates and
+// refreshed with the bookings other instances created since the last check.
+@Slf4j
+@Component
+public class BookingDurationBound {
+    private static final String LONGEST_SINCE = "SELECT max(id), max(EXTRACT(EPOCH FROM (end_date - start_date))) " +
+            "FROM bookings WHERE id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<Duration> longest = new AtomicReference<>(BookingConstants.MIN_DURATION_BOUND);
+    private final AtomicLong lastCheckedId = new AtomicLong();
+
+    public BookingDurationBound(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.duration-bound.refresh-interval:PT1M}",
+            initialDelayString = "${shareit.booking.duration-bound.refresh-interval:PT1M}")
+    public void refresh() {
+        jdbcTemplate.query(LONGEST_SINCE, resultSet -> {
+            long lastId = resultSet.getLong(1);
+
+            if (resultSet.wasNull()) {
+                return;
+            }
+
+            raise(Duration.ofSeconds(resultSet.getLong(2)));
+            lastCheckedId.accumulateAndGet(lastId, Math::max);
+        }, lastCheckedId.get());
+    }
+
+    public Duration get() {
+        return longest.get();
+    }
+
+    public LocalDateTime earliestStart(LocalDateTime dateTime) {
+        return dateTime.minus(longest.get());
+    }
+
+    public void record(LocalDateTime start, LocalDateTime end) {
+        raise(Duration.between(start, end));
+    }
+
+    private void raise(Duration duration) {
+        Duration previous = longest.getAndAccumulate(duration, (current, candidate) ->
+                candidate.compareTo(current) > 0 ? candidate : current);
+
+        if (duration.compareTo(previous) > 0) {
+            log.info("Booking duration bound raised from {} to {}.", previous, duration);
+        }
+    }
+}
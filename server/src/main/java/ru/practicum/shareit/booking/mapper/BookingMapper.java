@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.model.dto.BookingCountsView;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
+import ru.practicum.shareit.booking.model.dto.BookingExportView;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.entity.ArchivedBooking;
 import ru.practicum.shareit.booking.model.entity.Booking;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.user.model.entity.User;
@@ -36,6 +40,12 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingResponseDto toBookingResponseDto(BookingExportView booking) {
+        return new BookingResponseDto(booking.getId(), booking.getStartDate(), booking.getEndDate(),
+                booking.getStatus(), booking.getItemId(), booking.getItemName(), booking.getBookerId(),
+                booking.getBookerName());
+    }
+
     public Booking toBooking(BookingDto bookingDto, Item item, User booker) {
         return Booking.builder()
                 .id(bookingDto.getId())
@@ -47,6 +57,18 @@ public class BookingMapper {
                 .build();
     }
 
+    public Booking toBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .item(archivedBooking.getItem())
+                .booker(archivedBooking.getBooker())
+                .status(archivedBooking.getStatus())
+                .version(archivedBooking.getVersion())
+                .build();
+    }
+
     public BookingShortDto toBookingShortDto(Booking booking) {
         return BookingShortDto.builder()
                 .id(booking.getId())
@@ -63,4 +85,17 @@ public class BookingMapper {
 
         return result;
     }
+
+    // Archived bookings have all ended, so they count towards ALL, PAST, WAITING and REJECTED but never
+    // towards CURRENT or FUTURE.
+    public BookingCountsDto toBookingCountsDto(BookingCountsView counts) {
+        return BookingCountsDto.builder()
+                .all(counts.getAllCount() + counts.getArchivedCount())
+                .current(counts.getCurrentCount())
+                .past(counts.getPastCount() + counts.getArchivedCount())
+                .future(counts.getFutureCount())
+                .waiting(counts.getWaitingCount() + counts.getArchivedWaitingCount())
+                .rejected(counts.getRejectedCount() + counts.getArchivedRejectedCount())
+                .build();
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.model.dto;
+
+// Row of the conditional aggregation queries in BookingRepository
+public interface BookingCountsView {
+    long getAllCount();
+
+    long getCurrentCount();
+
+    long getPastCount();
+
+    long getFutureCount();
+
+    long getWaitingCount();
+
+    long getRejectedCount();
+
+    long getArchivedCount();
+
+    long getArchivedWaitingCount();
+
+    long getArchivedRejectedCount();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model.dto;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// Row of the export queries in BookingRepository, read from the bookings table or the archive
+public interface BookingExportView {
+    long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    BookingStatus getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+
+    String getBookerName();
+}
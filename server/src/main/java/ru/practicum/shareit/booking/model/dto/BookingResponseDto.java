@@ -18,6 +18,12 @@ public class BookingResponseDto {
     private Item item;
     private Booker booker;
 
+    // Used by the criteria projection in BookingFilterRepositoryImpl
+    public BookingResponseDto(long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, status, new Item(itemId, itemName), new Booker(bookerId, bookerName));
+    }
+
     @Getter
     @Setter
     @Builder
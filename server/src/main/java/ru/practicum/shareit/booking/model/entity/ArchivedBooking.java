@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model.entity;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.user.model.entity.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@Immutable
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "bookings_archive")
+public class ArchivedBooking {
+    @Id
+    private long id;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "booker_id", nullable = false)
+    private User booker;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column
+    private Long version;
+}
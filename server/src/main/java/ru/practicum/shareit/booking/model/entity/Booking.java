@@ -41,4 +41,7 @@ public class Booking {
     @Column
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitions.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+    private static final String CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS %s PARTITION OF bookings " +
+            "FOR VALUES FROM ('%s-01') TO ('%s-01')";
+    private static final String IN_MONTH = "start_date >= '%s-01' AND start_date < '%s-01'";
+    private static final String DEFAULT_MONTHS = "SELECT DISTINCT to_char(start_date, 'YYYY-MM') " +
+            "FROM bookings_default WHERE %s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsBack;
+    private final int monthsAhead;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${shareit.booking.partitions.months-back:24}") int monthsBack,
+                                      @Value("${shareit.booking.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsBack = monthsBack;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // Runs before the web server accepts requests, so new bookings never land in the default partition
+    // for a month that is about to get its own partition.
+    @PostConstruct
+    public void init() {
+        createPartitions(YearMonth.now());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.partitions.check-interval:PT6H}",
+            initialDelayString = "${shareit.booking.partitions.check-interval:PT6H}")
+    public void maintain() {
+        createPartitions(YearMonth.now());
+    }
+
+    int createPartitions(YearMonth current) {
+        YearMonth first = current.minusMonths(monthsBack);
+        YearMonth last = current.plusMonths(monthsAhead);
+        Set<YearMonth> defaultMonths = findDefaultMonths(first, last);
+        int created = 0;
+
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            try {
+                createPartition(month, defaultMonths.contains(month));
+                created++;
+            } catch (DataAccessException e) {
+                log.warn("Failed to create booking partition for {}. Error details: {}.", month, e.getMessage());
+            }
+        }
+
+        log.debug("Ensured {} monthly booking partitions around {}.", created, current);
+        return created;
+    }
+
+    // Bookings may start past the pre-created months and then sit in the default partition. One scan of it per
+    // run finds the months in the window that it holds rows for.
+    private Set<YearMonth> findDefaultMonths(YearMonth first, YearMonth last) {
+        try {
+            return jdbcTemplate.queryForList(String.format(DEFAULT_MONTHS,
+                            String.format(IN_MONTH, first, last.plusMonths(1))), String.class).stream()
+                    .map(YearMonth::parse)
+                    .collect(Collectors.toSet());
+        } catch (DataAccessException e) {
+            log.warn("Failed to check the default booking partition. Error details: {}.", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    // PostgreSQL refuses to create a partition whose range the default partition already holds rows for,
+    // so those rows are moved out while the default partition is detached.
+    private void createPartition(YearMonth month, boolean hasDefaultRows) {
+        String name = partitionName(month);
+        String createPartition = String.format(CREATE_PARTITION, name, month, month.plusMonths(1));
+        String inMonth = String.format(IN_MONTH, month, month.plusMonths(1));
+
+        if (!hasDefaultRows) {
+            jdbcTemplate.execute(createPartition);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION bookings_default");
+            jdbcTemplate.execute(createPartition);
+            int moved = jdbcTemplate.update(String.format("INSERT INTO %s SELECT * FROM bookings_default WHERE %s",
+                    name, inMonth));
+            jdbcTemplate.update(String.format("DELETE FROM bookings_default WHERE %s", inMonth));
+            jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT");
+            log.info("Moved {} bookings from the default partition to {}.", moved, name);
+        });
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("bookings_%d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
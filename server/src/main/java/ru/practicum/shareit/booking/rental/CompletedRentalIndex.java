@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.util.collections.LongHashSet;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Item ids per user that have an approved booking which has already ended, which is what allows a comment.
+// Only positive answers are kept: an approved booking never changes its status again, so an entry can't become
+// stale, while a missing entry just means that the database has to be asked. Approvals made by this instance wait
+// in a queue ordered by the end of the booking and move into the index once that moment has passed.
+@Slf4j
+@Component
+public class CompletedRentalIndex {
+    private final Map<Long, LongHashSet> completed;
+    private final PriorityQueue<PendingRental> pending =
+            new PriorityQueue<>(Comparator.comparing(PendingRental::getEnd));
+    private final int maxPending;
+
+    public CompletedRentalIndex(@Value("${shareit.booking.completed-rentals.max-users:100000}") int maxUsers,
+                                @Value("${shareit.booking.completed-rentals.max-pending:100000}") int maxPending) {
+        this.completed = new LruCache<>(maxUsers);
+        this.maxPending = maxPending;
+    }
+
+    public synchronized boolean contains(long userId, long itemId, LocalDateTime now) {
+        promote(now);
+        LongHashSet itemIds = completed.get(userId);
+        return itemIds != null && itemIds.contains(itemId);
+    }
+
+    public synchronized void add(long userId, long itemId) {
+        completed.computeIfAbsent(userId, id -> new LongHashSet()).add(itemId);
+    }
+
+    // Called inside the approving transaction, the rental is recorded only if it commits
+    public void onApproved(long userId, long itemId, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addPending(new PendingRental(userId, itemId, end));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addPending(new PendingRental(userId, itemId, end));
+            }
+        });
+    }
+
+    synchronized int pendingSize() {
+        return pending.size();
+    }
+
+    private synchronized void addPending(PendingRental rental) {
+        if (pending.size() >= maxPending) {
+            log.debug("Pending rentals queue is full, item {} of user {} will be checked in the database.",
+                    rental.getItemId(), rental.getUserId());
+            return;
+        }
+
+        pending.add(rental);
+    }
+
+    private void promote(LocalDateTime now) {
+        while (!pending.isEmpty() && pending.peek().getEnd().isBefore(now)) {
+            PendingRental rental = pending.poll();
+            add(rental.getUserId(), rental.getItemId());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class PendingRental {
+        private final long userId;
+        private final long itemId;
+        private final LocalDateTime end;
+    }
+
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        private LruCache(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    ArchivedBooking findFirstByItemIdAndStatusOrderByStartDesc(
+            Long itemId, BookingStatus status);
+
+    @Query("select b " +
+            "from ArchivedBooking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?2 " +
+            "and b.start = (" +
+            "select max(a.start) " +
+            "from ArchivedBooking a " +
+            "where a.item.id = b.item.id " +
+            "and a.status = ?2)")
+    List<ArchivedBooking> findLatestByItemIdIn(List<Long> itemIds, BookingStatus status);
+
+    @Query("select b " +
+            "from ArchivedBooking b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.id in ?1")
+    List<ArchivedBooking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
+            Long bookerId, Long itemId, BookingStatus status, LocalDateTime dateTime);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, version) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, status, version " +
+            "FROM bookings " +
+            "WHERE id IN (?1)", nativeQuery = true)
+    int copyFromBookings(List<Long> bookingIds);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.util.constants.BookingConstants;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Criteria for BookingFilterRepository. Every field except role and userId is optional,
+// 'now' is required for the time based states.
+@Getter
+@Builder
+public class BookingFilter {
+    private final BookingRole role;
+    private final Long userId;
+    private final BookingState state;
+    private final LocalDateTime now;
+    private final Long itemId;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    // Longest booking duration, see BookingDurationBound
+    @Builder.Default
+    private final Duration durationBound = BookingConstants.MIN_DURATION_BOUND;
+    // Without them the item and booker names are not joined and stay null in the result
+    @Builder.Default
+    private final boolean withItem = true;
+    @Builder.Default
+    private final boolean withBooker = true;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+
+import java.util.List;
+
+public interface BookingFilterRepository {
+
+    // Both lists are ordered newest first, so BookingServiceImpl can continue a page from the table into the archive
+    List<BookingResponseDto> findAllByFilter(BookingFilter filter, Pageable pageable);
+
+    long countByFilter(BookingFilter filter);
+
+    List<BookingResponseDto> findAllArchivedByFilter(BookingFilter filter, Pageable pageable);
+}
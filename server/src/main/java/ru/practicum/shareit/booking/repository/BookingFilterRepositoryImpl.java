@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.entity.ArchivedBooking;
+import ru.practicum.shareit.booking.model.entity.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds one query from a BookingFilter instead of a derived method per combination. Every query starts
+// with the booker or item owner predicate and orders by start, so it stays on the (booker_id, start_date)
+// and (item_id, start_date) indexes. Rows are projected straight into BookingResponseDto.
+public class BookingFilterRepositoryImpl implements BookingFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingResponseDto> findAllByFilter(BookingFilter filter, Pageable pageable) {
+        return findAll(Booking.class, filter, pageable);
+    }
+
+    @Override
+    public long countByFilter(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+        query.select(cb.count(booking))
+                .where(toPredicates(cb, booking, booking.join("item"), filter, true));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<BookingResponseDto> findAllArchivedByFilter(BookingFilter filter, Pageable pageable) {
+        return findAll(ArchivedBooking.class, filter, pageable);
+    }
+
+    private List<BookingResponseDto> findAll(Class<?> entity, BookingFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> query = cb.createQuery(BookingResponseDto.class);
+        Root<?> booking = query.from(entity);
+        // Item and booker ids are foreign keys of the booking, the joins are needed only for names and the owner
+        Path<?> item = filter.isWithItem() || filter.getRole() == BookingRole.OWNER
+                ? booking.join("item")
+                : booking.get("item");
+        Path<?> booker = filter.isWithBooker() ? booking.join("booker") : booking.get("booker");
+        query.select(cb.construct(BookingResponseDto.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), filter.isWithItem() ? item.get("name") : cb.nullLiteral(String.class),
+                        booker.get("id"), filter.isWithBooker() ? booker.get("name") : cb.nullLiteral(String.class)))
+                .where(toPredicates(cb, booking, item, filter, entity == Booking.class))
+                .orderBy(cb.desc(booking.get("start")));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    // The start date lower bound only helps partition pruning, so the archive, which is not partitioned and may
+    // hold bookings longer than the current bound, is queried without it
+    private Predicate[] toPredicates(CriteriaBuilder cb, Root<?> booking, Path<?> item, BookingFilter filter,
+                                     boolean boundStart) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        LocalDateTime now = filter.getNow();
+
+        if (filter.getRole() == BookingRole.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), filter.getUserId()));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), filter.getUserId()));
+        }
+
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(item.get("id"), filter.getItemId()));
+        }
+
+        if (filter.getRangeStart() != null && filter.getRangeEnd() != null) {
+            if (boundStart) {
+                predicates.add(cb.greaterThan(start, filter.getRangeStart().minus(filter.getDurationBound())));
+            }
+
+            predicates.add(cb.lessThan(start, filter.getRangeEnd()));
+            predicates.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+
+        if (filter.getState() != null) {
+            switch (filter.getState()) {
+                case PAST:
+                    predicates.add(cb.lessThan(start, now));
+                    predicates.add(cb.lessThan(end, now));
+                    break;
+                case FUTURE:
+                    predicates.add(cb.greaterThan(start, now));
+                    break;
+                case CURRENT:
+                    if (boundStart) {
+                        predicates.add(cb.greaterThan(start, now.minus(filter.getDurationBound())));
+                    }
+
+                    predicates.add(cb.lessThan(start, now));
+                    predicates.add(cb.greaterThan(end, now));
+                    break;
+                case WAITING:
+                    predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                    break;
+                case REJECTED:
+                    predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+}
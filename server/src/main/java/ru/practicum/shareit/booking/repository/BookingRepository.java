@@ -2,43 +2,72 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.dto.BookingCountsView;
+import ru.practicum.shareit.booking.model.dto.BookingExportView;
 import ru.practicum.shareit.booking.model.entity.Booking;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.dto.TimeSlotDto;
+import ru.practicum.shareit.stats.model.dto.RentalPeriodDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(
-            Long ownerId, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(
-            Long ownerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long ownerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(
-            Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(
-            Long bookerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(
-            Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingFilterRepository {
+    String EXPORT_FETCH_SIZE = "500";
+    String EXPORT_COLUMNS = "b.id AS id, b.start_date AS startDate, b.end_date AS endDate, b.status AS status, " +
+            "i.id AS itemId, i.name AS itemName, u.id AS bookerId, u.name AS bookerName ";
+    String EXPORT_JOINS = "JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id ";
+
+    // Badge counts for every state in one pass over the booker's index range. The states use the same
+    // predicates as BookingFilterRepositoryImpl. Archived bookings have all ended, so they are counted once per
+    // status in the archive subquery and added to ALL, PAST, WAITING and REJECTED. The bookings are left joined
+    // to that single row, so a user whose whole history is archived still gets a row.
+    @Query(value = "SELECT count(b.id) AS allCount, " +
+            "count(*) FILTER (WHERE b.start_date > ?2 AND b.start_date < ?3 AND b.end_date > ?3) AS currentCount, " +
+            "count(*) FILTER (WHERE b.start_date < ?3 AND b.end_date < ?3) AS pastCount, " +
+            "count(*) FILTER (WHERE b.start_date > ?3) AS futureCount, " +
+            "count(*) FILTER (WHERE b.status = 'WAITING') AS waitingCount, " +
+            "count(*) FILTER (WHERE b.status = 'REJECTED') AS rejectedCount, " +
+            "ar.total AS archivedCount, " +
+            "ar.waiting AS archivedWaitingCount, " +
+            "ar.rejected AS archivedRejectedCount " +
+            "FROM (SELECT count(*) AS total, " +
+            "count(*) FILTER (WHERE a.status = 'WAITING') AS waiting, " +
+            "count(*) FILTER (WHERE a.status = 'REJECTED') AS rejected " +
+            "FROM bookings_archive a " +
+            "WHERE a.booker_id = ?1) ar " +
+            "LEFT JOIN bookings b ON b.booker_id = ?1 " +
+            "GROUP BY ar.total, ar.waiting, ar.rejected", nativeQuery = true)
+    BookingCountsView countByBookerIdPerState(Long bookerId, LocalDateTime earliestStart, LocalDateTime now);
+
+    @Query(value = "SELECT count(b.id) AS allCount, " +
+            "count(*) FILTER (WHERE b.start_date > ?2 AND b.start_date < ?3 AND b.end_date > ?3) AS currentCount, " +
+            "count(*) FILTER (WHERE b.start_date < ?3 AND b.end_date < ?3) AS pastCount, " +
+            "count(*) FILTER (WHERE b.start_date > ?3) AS futureCount, " +
+            "count(*) FILTER (WHERE b.status = 'WAITING') AS waitingCount, " +
+            "count(*) FILTER (WHERE b.status = 'REJECTED') AS rejectedCount, " +
+            "ar.total AS archivedCount, " +
+            "ar.waiting AS archivedWaitingCount, " +
+            "ar.rejected AS archivedRejectedCount " +
+            "FROM (SELECT count(*) AS total, " +
+            "count(*) FILTER (WHERE a.status = 'WAITING') AS waiting, " +
+            "count(*) FILTER (WHERE a.status = 'REJECTED') AS rejected " +
+            "FROM bookings_archive a " +
+            "JOIN items ai ON ai.id = a.item_id " +
+            "WHERE ai.owner_id = ?1) ar " +
+            "LEFT JOIN items i ON i.owner_id = ?1 " +
+            "LEFT JOIN bookings b ON b.item_id = i.id " +
+            "GROUP BY ar.total, ar.waiting, ar.rejected", nativeQuery = true)
+    BookingCountsView countByItemOwnerIdPerState(Long ownerId, LocalDateTime earliestStart, LocalDateTime now);
 
     Booking findFirstBookingByItemIdAndStartLessThanEqualAndStatusOrderByStartDesc(
             Long itemId, LocalDateTime dateTime, BookingStatus status);
@@ -51,4 +80,93 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
             Long bookerId, Long itemId, BookingStatus status, LocalDateTime dateTime);
+
+    boolean existsByItemIdAndIdNotAndStatusAndStartAfterAndStartBeforeAndEndAfter(
+            Long itemId, Long bookingId, BookingStatus status, LocalDateTime earliestStart,
+            LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.item.model.dto.TimeSlotDto(b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ?2 " +
+            "and b.start > ?3 " +
+            "and b.start < ?5 " +
+            "and b.end > ?4 " +
+            "order by b.start")
+    List<TimeSlotDto> findTimeSlotsByItemId(
+            Long itemId, Collection<BookingStatus> statuses, LocalDateTime earliestStart, LocalDateTime from, LocalDateTime to);
+
+    @Query("select b " +
+            "from Booking b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.id in ?1")
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 " +
+            "and b.status = ?2")
+    int updateStatus(Long bookingId, BookingStatus expectedStatus, BookingStatus status);
+
+    @Query("select b.id " +
+            "from Booking b " +
+            "where b.start < ?1 " +
+            "order by b.start, b.id")
+    List<Long> findIdsByStartBefore(LocalDateTime dateTime, Pageable pageable);
+
+    // Exports read the archive as well. Both tables have the same columns, so each query is the UNION ALL
+    // of the same select over bookings and bookings_archive, ordered once over the combined rows.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(value = "SELECT " + EXPORT_COLUMNS + "FROM bookings b " + EXPORT_JOINS +
+            "UNION ALL " +
+            "SELECT " + EXPORT_COLUMNS + "FROM bookings_archive b " + EXPORT_JOINS +
+            "ORDER BY id", nativeQuery = true)
+    Stream<BookingExportView> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(value = "SELECT " + EXPORT_COLUMNS + "FROM bookings b " + EXPORT_JOINS +
+            "WHERE b.booker_id = ?1 " +
+            "UNION ALL " +
+            "SELECT " + EXPORT_COLUMNS + "FROM bookings_archive b " + EXPORT_JOINS +
+            "WHERE b.booker_id = ?1 " +
+            "ORDER BY startDate DESC", nativeQuery = true)
+    Stream<BookingExportView> streamAllByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(value = "SELECT " + EXPORT_COLUMNS + "FROM bookings b " + EXPORT_JOINS +
+            "WHERE i.owner_id = ?1 " +
+            "UNION ALL " +
+            "SELECT " + EXPORT_COLUMNS + "FROM bookings_archive b " + EXPORT_JOINS +
+            "WHERE i.owner_id = ?1 " +
+            "ORDER BY startDate DESC", nativeQuery = true)
+    Stream<BookingExportView> streamAllByItemOwnerId(Long ownerId);
+
+    // Items with bookings in the given status overlapping [from, to)
+    @Query("select distinct b.item.id " +
+            "from Booking b " +
+            "where b.status = ?1 " +
+            "and b.start > ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3")
+    List<Long> findItemIdsByStatus(
+            BookingStatus status, LocalDateTime earliestStart, LocalDateTime from, LocalDateTime to);
+
+    // Bookings of the given items overlapping [from, to), the earliest start bound keeps it on the start_date
+    // partitions
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new ru.practicum.shareit.stats.model.dto.RentalPeriodDto(b.item.id, b.booker.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.status = ?1 " +
+            "and b.item.id in ?2 " +
+            "and b.start > ?3 " +
+            "and b.start < ?5 " +
+            "and b.end > ?4")
+    Stream<RentalPeriodDto> streamPeriodsByStatusAndItemIdIn(BookingStatus status, Collection<Long> itemIds,
+                                                             LocalDateTime earliestStart, LocalDateTime from,
+                                                             LocalDateTime to);
 }
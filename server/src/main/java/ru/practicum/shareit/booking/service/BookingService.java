@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -13,7 +16,15 @@ public interface BookingService {
 
     BookingResponseDto getById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getByBookerId(Long userId, String state, Integer from, Integer size);
+    MultiGetResponseDto<BookingResponseDto> getByIds(Long userId, List<Long> bookingIds);
 
-    List<BookingResponseDto> getByOwnerId(Long userId, String state, Integer from, Integer size);
+    List<BookingResponseDto> getByBookerId(Long userId, String state, Long itemId, LocalDateTime start,
+                                           LocalDateTime end, Integer from, Integer size, String fields);
+
+    List<BookingResponseDto> getByOwnerId(Long userId, String state, Long itemId, LocalDateTime start,
+                                          LocalDateTime end, Integer from, Integer size, String fields);
+
+    BookingCountsDto getCountsByBookerId(Long userId);
+
+    BookingCountsDto getCountsByOwnerId(Long userId);
 }
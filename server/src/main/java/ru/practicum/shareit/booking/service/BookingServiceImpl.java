@@ -6,18 +6,31 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.rental.CompletedRentalIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.PermissionDeniedException;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.stats.service.ItemStatsService;
+import ru.practicum.shareit.util.fields.Fields;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 import ru.practicum.shareit.util.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 
@@ -30,8 +43,13 @@ import java.util.*;
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final OutboxService outboxService;
+    private final CompletedRentalIndex completedRentalIndex;
+    private final ItemStatsService itemStatsService;
+    private final BookingDurationBound bookingDurationBound;
 
     @Override
     @Transactional
@@ -40,10 +58,13 @@ public class BookingServiceImpl implements BookingService {
         Long itemId = bookingDto.getItemId();
         Item item = getItemById(itemId);
 
-        validateBookingWhenCreate(item, userId);
+        validateBookingWhenCreate(item, userId, bookingDto);
 
         Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        bookingDurationBound.record(booking.getStart(), booking.getEnd());
+        BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        outboxService.publish(AggregateType.BOOKING, bookingResponseDto.getId(), EventType.BOOKING_CREATED, bookingResponseDto);
+        return bookingResponseDto;
     }
 
     @Override
@@ -52,72 +73,156 @@ public class BookingServiceImpl implements BookingService {
         getUserById(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NoSuchElementException(String.format("Booking with ID: %d not found.", bookingId)));
-        Item item = getItemById(booking.getItem().getId());
+        Long itemId = booking.getItem().getId();
+        Item item = approved ? getItemByIdForUpdate(itemId) : getItemById(itemId);
 
         validateBookingWhenUpdate(booking, item, userId);
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toBookingResponseDto(booking);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        if (approved && bookingRepository.existsByItemIdAndIdNotAndStatusAndStartAfterAndStartBeforeAndEndAfter(
+                itemId, bookingId, BookingStatus.APPROVED, bookingDurationBound.earliestStart(booking.getStart()),
+                booking.getEnd(), booking.getStart())) {
+            throw new ConflictException(String.format("Booking with ID: %d overlaps " +
+                    "with an already approved booking of item with ID: %d.", bookingId, itemId));
+        }
+
+        BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
+
+        if (bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, status) == 0) {
+            throw new ConflictException(String.format("Booking with ID: %d " +
+                    "has already been approved or rejected.", bookingId));
+        }
+
+        bookingResponseDto.setStatus(status);
+
+        if (approved) {
+            completedRentalIndex.onApproved(booking.getBooker().getId(), itemId, booking.getEnd());
+            itemStatsService.recordApproved(booking);
+        }
+
+        outboxService.publish(AggregateType.BOOKING, bookingId,
+                approved ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED, bookingResponseDto);
+        return bookingResponseDto;
     }
 
     @Override
     public BookingResponseDto getById(Long userId, Long bookingId) {
         getUserById(userId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new NoSuchElementException(String.format("Booking with ID: %d not found", bookingId)));
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> bookingArchiveRepository.findById(bookingId).map(BookingMapper::toBooking))
+                .orElseThrow(() -> new NoSuchElementException(String.format("Booking with ID: %d not found", bookingId)));
+        validateViewer(userId, booking);
+        return BookingMapper.toBookingResponseDto(booking);
+    }
 
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
-            throw new PermissionDeniedException("Only the owner or the booker of the item can view the booking.");
+    @Override
+    public MultiGetResponseDto<BookingResponseDto> getByIds(Long userId, List<Long> bookingIds) {
+        getUserById(userId);
+        Map<Long, Booking> bookings = new HashMap<>();
+        bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds)
+                .forEach(booking -> bookings.put(booking.getId(), booking));
+
+        List<Long> notFound = new ArrayList<>(bookingIds);
+        notFound.removeAll(bookings.keySet());
+
+        if (!notFound.isEmpty()) {
+            bookingArchiveRepository.findAllWithItemAndBookerByIdIn(notFound)
+                    .forEach(archived -> bookings.put(archived.getId(), BookingMapper.toBooking(archived)));
         }
 
-        return BookingMapper.toBookingResponseDto(booking);
+        Map<Long, BookingResponseDto> bookingDtos = new HashMap<>();
+
+        for (Booking booking : bookings.values()) {
+            validateViewer(userId, booking);
+            bookingDtos.put(booking.getId(), BookingMapper.toBookingResponseDto(booking));
+        }
+
+        return MultiGetResponseDto.of(bookingIds, bookingDtos);
     }
 
     @Override
-    public List<BookingResponseDto> getByBookerId(Long userId, String state, Integer from, Integer size) {
+    public List<BookingResponseDto> getByBookerId(Long userId, String state, Long itemId, LocalDateTime start,
+                                                  LocalDateTime end, Integer from, Integer size, String fields) {
         getUserById(userId);
-        BookingState bookingState = BookingState.from(state)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown state: %s", state)));
         Pageable pageable = PageRequest.of(from / size, size);
-        final LocalDateTime now = LocalDateTime.now();
-
-        switch (bookingState) {
-            case PAST:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable));
-            case FUTURE:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable));
-            case CURRENT:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, pageable));
-            case WAITING:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable));
-            case REJECTED:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable));
-            default:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable));
-        }
+        return findAllByFilter(toFilter(BookingRole.BOOKER, userId, state, itemId, start, end, fields), pageable);
     }
 
     @Override
-    public List<BookingResponseDto> getByOwnerId(Long userId, String state, Integer from, Integer size) {
+    public List<BookingResponseDto> getByOwnerId(Long userId, String state, Long itemId, LocalDateTime start,
+                                                 LocalDateTime end, Integer from, Integer size, String fields) {
         getUserById(userId);
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        return findAllByFilter(toFilter(BookingRole.OWNER, userId, state, itemId, start, end, fields), pageable);
+    }
+
+    @Override
+    public BookingCountsDto getCountsByBookerId(Long userId) {
+        getUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        return BookingMapper.toBookingCountsDto(bookingRepository.countByBookerIdPerState(
+                userId, bookingDurationBound.earliestStart(now), now));
+    }
+
+    @Override
+    public BookingCountsDto getCountsByOwnerId(Long userId) {
+        getUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        return BookingMapper.toBookingCountsDto(bookingRepository.countByItemOwnerIdPerState(
+                userId, bookingDurationBound.earliestStart(now), now));
+    }
+
+    private BookingFilter toFilter(BookingRole role, Long userId, String state, Long itemId,
+                                   LocalDateTime start, LocalDateTime end, String fields) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown state: %s", state)));
-        Pageable pageable = OffsetPageRequest.of(from, size);
-        final LocalDateTime now = LocalDateTime.now();
-
-        switch (bookingState) {
-            case PAST:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, pageable));
-            case FUTURE:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, pageable));
-            case CURRENT:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, pageable));
-            case WAITING:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable));
-            case REJECTED:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable));
-            default:
-                return BookingMapper.toBookingResponseDto(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable));
+
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Both start and end of the period must be set.");
+        }
+
+        if (start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("The start of the period must be before its end.");
+        }
+
+        Set<String> selected = Fields.parse(fields, BookingResponseDto.class);
+        return BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .state(bookingState)
+                .now(LocalDateTime.now())
+                .itemId(itemId)
+                .rangeStart(start)
+                .rangeEnd(end)
+                .durationBound(bookingDurationBound.get())
+                .withItem(Fields.includes(selected, "item"))
+                .withBooker(Fields.includes(selected, "booker"))
+                .build();
+    }
+
+    // Archived bookings all start before the bookings left in the table, so with the newest first order
+    // the archive is read only when the requested page runs past the end of the table. They have all ended,
+    // so CURRENT and FUTURE never reach it, while every other state may match archived rows of any status.
+    private List<BookingResponseDto> findAllByFilter(BookingFilter filter, Pageable pageable) {
+        List<BookingResponseDto> bookings = bookingRepository.findAllByFilter(filter, pageable);
+        int missing = pageable.getPageSize() - bookings.size();
+
+        if (filter.getState() == BookingState.CURRENT || filter.getState() == BookingState.FUTURE || missing <= 0) {
+            return bookings;
+        }
+
+        long archiveOffset = bookings.isEmpty()
+                ? Math.max(0, pageable.getOffset() - bookingRepository.countByFilter(filter))
+                : 0;
+        List<BookingResponseDto> result = new ArrayList<>(bookings);
+        result.addAll(bookingRepository.findAllArchivedByFilter(filter, new OffsetPageRequest((int) archiveOffset, missing)));
+        return result;
+    }
+
+    private void validateViewer(Long userId, Booking booking) {
+        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+            throw new PermissionDeniedException("Only the owner or the booker of the item can view the booking.");
         }
     }
 
@@ -131,7 +236,12 @@ public class BookingServiceImpl implements BookingService {
                 new NoSuchElementException(String.format("Item with ID: %d not found.", id)));
     }
 
-    private void validateBookingWhenCreate(Item item, Long userId) {
+    private Item getItemByIdForUpdate(Long id) {
+        return itemRepository.findByIdForUpdate(id).orElseThrow(() ->
+                new NoSuchElementException(String.format("Item with ID: %d not found.", id)));
+    }
+
+    private void validateBookingWhenCreate(Item item, Long userId, BookingDto bookingDto) {
         if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new PermissionDeniedException("You can't book your own item.");
         }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -56,4 +57,11 @@ public class ErrorHandler {
         log.warn("Invalid value. Error details: {}.", e.getMessage());
         return Map.of(ERROR, e.getMessage());
     }
+
+    @ExceptionHandler({ConflictException.class, ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflictException(final RuntimeException e) {
+        log.warn("Conflicting modification. Error details: {}.", e.getMessage());
+        return Map.of(ERROR, e.getMessage());
+    }
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.export.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.PermissionDeniedException;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static ru.practicum.shareit.export.controller.ExportResponses.openWriter;
+import static ru.practicum.shareit.export.controller.ExportResponses.toExportFormat;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.ADMIN_TOKEN_HEADER;
+
+// Whole-table exports for analytics. The gateway does not proxy /admin, and every request has to carry
+// shareit.export.admin-token, so the endpoints are closed while the token is not configured.
+@Slf4j
+@RestController
+@RequestMapping("/admin/export")
+public class AdminExportController {
+    private final ExportService exportService;
+    private final byte[] adminToken;
+
+    public AdminExportController(ExportService exportService,
+                                 @Value("${shareit.export.admin-token:}") String adminToken) {
+        this.exportService = exportService;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @GetMapping("/bookings")
+    public void exportBookings(
+            @RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token,
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET request to export all bookings as {}.", format);
+        checkToken(token);
+        ExportFormat exportFormat = toExportFormat(format);
+        exportService.exportBookings(exportFormat, openWriter(response, exportFormat, "bookings"));
+    }
+
+    @GetMapping("/items")
+    public void exportItems(
+            @RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token,
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET request to export all items as {}.", format);
+        checkToken(token);
+        ExportFormat exportFormat = toExportFormat(format);
+        exportService.exportItems(exportFormat, openWriter(response, exportFormat, "items"));
+    }
+
+    private void checkToken(String token) {
+        if (adminToken.length == 0 || token == null
+                || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new PermissionDeniedException("Full exports require a valid admin token");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.export.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static ru.practicum.shareit.export.controller.ExportResponses.openWriter;
+import static ru.practicum.shareit.export.controller.ExportResponses.toExportFormat;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@Slf4j
+@RestController
+@AllArgsConstructor
+@RequestMapping("/export")
+public class ExportController {
+    private final ExportService exportService;
+    private final UserService userService;
+
+    @GetMapping("/bookings")
+    public void exportBookingsByBookerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET request to export all bookings by booker with ID: {} as {}.", userId, format);
+        ExportFormat exportFormat = toExportFormat(format);
+        userService.getById(userId);
+        exportService.exportBookingsByBookerId(userId, exportFormat, openWriter(response, exportFormat, "bookings"));
+    }
+
+    @GetMapping("/bookings/owner")
+    public void exportBookingsByOwnerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET request to export all bookings by owner with ID: {} as {}.", userId, format);
+        ExportFormat exportFormat = toExportFormat(format);
+        userService.getById(userId);
+        exportService.exportBookingsByOwnerId(userId, exportFormat, openWriter(response, exportFormat, "bookings"));
+    }
+
+    @GetMapping("/items")
+    public void exportItemsByOwnerId(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET request to export all items by owner with ID: {} as {}.", userId, format);
+        ExportFormat exportFormat = toExportFormat(format);
+        userService.getById(userId);
+        exportService.exportItemsByOwnerId(userId, exportFormat, openWriter(response, exportFormat, "items"));
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.export.controller;
+
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.export.enums.ExportFormat;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    static ExportFormat toExportFormat(String format) {
+        return ExportFormat.from(format)
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown format: %s", format)));
+    }
+
+    static Writer openWriter(HttpServletResponse response, ExportFormat format, String name) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                String.format("attachment; filename=\"%s.%s\"", name, format.getExtension()));
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+}
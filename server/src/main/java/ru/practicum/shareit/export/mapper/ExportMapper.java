@@ -0,0 +1,51 @@
+package ru.practicum.shareit.export.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.dto.ItemResponseShortDto;
+
+import java.util.StringJoiner;
+
+@UtilityClass
+public class ExportMapper {
+    public static final String BOOKING_CSV_HEADER = "id,start,end,status,item_id,item_name,booker_id,booker_name";
+    public static final String ITEM_CSV_HEADER = "id,name,description,available,owner_id,request_id";
+
+    public String toCsvRow(BookingResponseDto booking) {
+        return new StringJoiner(",")
+                .add(escape(booking.getId()))
+                .add(escape(booking.getStart()))
+                .add(escape(booking.getEnd()))
+                .add(escape(booking.getStatus()))
+                .add(escape(booking.getItem().getId()))
+                .add(escape(booking.getItem().getName()))
+                .add(escape(booking.getBooker().getId()))
+                .add(escape(booking.getBooker().getName()))
+                .toString();
+    }
+
+    public String toCsvRow(ItemResponseShortDto item) {
+        return new StringJoiner(",")
+                .add(escape(item.getId()))
+                .add(escape(item.getName()))
+                .add(escape(item.getDescription()))
+                .add(escape(item.getAvailable()))
+                .add(escape(item.getOwnerId()))
+                .add(escape(item.getRequestId()))
+                .toString();
+    }
+
+    private String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
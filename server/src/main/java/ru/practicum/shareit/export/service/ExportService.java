@@ -0,0 +1,19 @@
+package ru.practicum.shareit.export.service;
+
+import ru.practicum.shareit.export.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public interface ExportService {
+
+    void exportBookingsByBookerId(Long userId, ExportFormat format, Writer writer) throws IOException;
+
+    void exportBookingsByOwnerId(Long userId, ExportFormat format, Writer writer) throws IOException;
+
+    void exportItemsByOwnerId(Long userId, ExportFormat format, Writer writer) throws IOException;
+
+    void exportBookings(ExportFormat format, Writer writer) throws IOException;
+
+    void exportItems(ExportFormat format, Writer writer) throws IOException;
+}
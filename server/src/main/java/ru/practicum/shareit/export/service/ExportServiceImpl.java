@@ -0,0 +1,108 @@
+package ru.practicum.shareit.export.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.dto.BookingExportView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.export.mapper.ExportMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+    private static final int DETACH_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportBookingsByBookerId(Long userId, ExportFormat format, Writer writer) throws IOException {
+        try (Stream<BookingExportView> bookings = bookingRepository.streamAllByBookerId(userId)) {
+            long count = write(bookings, BookingMapper::toBookingResponseDto,
+                    ExportMapper.BOOKING_CSV_HEADER, ExportMapper::toCsvRow, format, writer);
+            log.info("Exported {} bookings of booker with ID: {} as {}.", count, userId, format);
+        }
+    }
+
+    @Override
+    public void exportBookingsByOwnerId(Long userId, ExportFormat format, Writer writer) throws IOException {
+        try (Stream<BookingExportView> bookings = bookingRepository.streamAllByItemOwnerId(userId)) {
+            long count = write(bookings, BookingMapper::toBookingResponseDto,
+                    ExportMapper.BOOKING_CSV_HEADER, ExportMapper::toCsvRow, format, writer);
+            log.info("Exported {} bookings of owner with ID: {} as {}.", count, userId, format);
+        }
+    }
+
+    @Override
+    public void exportItemsByOwnerId(Long userId, ExportFormat format, Writer writer) throws IOException {
+        try (Stream<Item> items = itemRepository.streamAllByOwnerId(userId)) {
+            long count = write(items, ItemMapper::toItemResponseShortDto,
+                    ExportMapper.ITEM_CSV_HEADER, ExportMapper::toCsvRow, format, writer);
+            log.info("Exported {} items of owner with ID: {} as {}.", count, userId, format);
+        }
+    }
+
+    @Override
+    public void exportBookings(ExportFormat format, Writer writer) throws IOException {
+        try (Stream<BookingExportView> bookings = bookingRepository.streamAll()) {
+            long count = write(bookings, BookingMapper::toBookingResponseDto,
+                    ExportMapper.BOOKING_CSV_HEADER, ExportMapper::toCsvRow, format, writer);
+            log.info("Exported {} bookings as {}.", count, format);
+        }
+    }
+
+    @Override
+    public void exportItems(ExportFormat format, Writer writer) throws IOException {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            long count = write(items, ItemMapper::toItemResponseShortDto,
+                    ExportMapper.ITEM_CSV_HEADER, ExportMapper::toCsvRow, format, writer);
+            log.info("Exported {} items as {}.", count, format);
+        }
+    }
+
+    private <E, D> long write(Stream<E> entities, Function<E, D> toDto, String csvHeader,
+                              Function<D, String> toCsvRow, ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeLine(writer, csvHeader);
+        }
+
+        long count = 0;
+        Iterator<E> iterator = entities.iterator();
+
+        while (iterator.hasNext()) {
+            D dto = toDto.apply(iterator.next());
+            writeLine(writer, format == ExportFormat.CSV ? toCsvRow.apply(dto) : objectMapper.writeValueAsString(dto));
+
+            if (++count % DETACH_BATCH_SIZE == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.idempotency.enums;
+
+public enum IdempotencyState {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.idempotency.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+import static ru.practicum.shareit.util.serialization.SmileConfig.APPLICATION_SMILE;
+
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, String.format("%s must be between 1 and %d characters.",
+                    IDEMPOTENCY_KEY_HEADER, MAX_KEY_LENGTH));
+            return;
+        }
+
+        String requestKey = String.format("%s:%s:%s",
+                request.getHeader(OWNER_ID_HEADER), request.getRequestURI(), idempotencyKey);
+        // The body is read up front so it can be fingerprinted before the controller sees it
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request.getMethod(), cachedRequest.body);
+
+        Optional<IdempotentResponse> existing = idempotencyService.reserve(requestKey, requestHash);
+
+        if (existing.isPresent()) {
+            respondToExisting(existing.get(), requestKey, requestHash, idempotencyKey, response);
+            return;
+        }
+
+        boolean completed = false;
+
+        try {
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(cachedRequest, responseWrapper);
+
+            if (!HttpStatus.valueOf(responseWrapper.getStatus()).is5xxServerError()) {
+                String contentType = responseWrapper.getContentType();
+                idempotencyService.complete(requestKey, requestHash, responseWrapper.getStatus(), contentType,
+                        encodeBody(contentType, responseWrapper.getContentAsByteArray()));
+                completed = true;
+            }
+
+            responseWrapper.copyBodyToResponse();
+        } finally {
+            if (!completed) {
+                // Failed requests leave nothing behind, so a retry runs again
+                idempotencyService.release(requestKey);
+            }
+        }
+    }
+
+    private void respondToExisting(IdempotentResponse stored, String requestKey, String requestHash,
+                                   String idempotencyKey, HttpServletResponse response) throws IOException {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, String.format(
+                    "%s: %s has already been used with a different request.", IDEMPOTENCY_KEY_HEADER, idempotencyKey));
+            return;
+        }
+
+        if (stored.getState() == IdempotencyState.PENDING) {
+            writeError(response, HttpStatus.CONFLICT, String.format("A request with %s: %s is already in progress.",
+                    IDEMPOTENCY_KEY_HEADER, idempotencyKey));
+            return;
+        }
+
+        log.info("Replaying stored response for request key: {}.", requestKey);
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, Boolean.TRUE.toString());
+
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+
+        if (stored.getBody() != null) {
+            response.getOutputStream().write(decodeBody(stored.getContentType(), stored.getBody()));
+        }
+    }
+
+    private static String hash(String method, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body column is text, so binary Smile responses are kept in Base64.
+    private static String encodeBody(String contentType, byte[] body) {
+        return isSmile(contentType) ? Base64.getEncoder().encodeToString(body) : new String(body, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decodeBody(String contentType, String body) {
+        return isSmile(contentType) ? Base64.getDecoder().decode(body) : body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean isSmile(String contentType) {
+        return contentType != null && APPLICATION_SMILE.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        log.warn("Idempotent request rejected. Error details: {}.", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The body is already in memory, so all of it is available at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.idempotency.model.entity;
+
+import lombok.*;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotentResponse {
+    @Id
+    @Column(name = "request_key")
+    private String requestKey;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyState state;
+
+    // Empty while the request is still PENDING
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+
+public interface IdempotentResponseInsertRepository {
+
+    void insert(IdempotentResponse response);
+}
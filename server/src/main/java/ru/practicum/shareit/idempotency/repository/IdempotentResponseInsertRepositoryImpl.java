@@ -0,0 +1,22 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+// save() merges an entity with an assigned id, which selects and then overwrites a row stored by a concurrent
+// request. persist() always inserts, so a second writer fails on the primary key instead.
+public class IdempotentResponseInsertRepositoryImpl implements IdempotentResponseInsertRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insert(IdempotentResponse response) {
+        entityManager.persist(response);
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotentResponseRepository extends JpaRepository<IdempotentResponse, String>,
+        IdempotentResponseInsertRepository {
+
+    Optional<IdempotentResponse> findByRequestKeyAndExpiresAtAfter(String requestKey, LocalDateTime dateTime);
+
+    // Reads the row that has just won the insert race. A read-write transaction is routed to the primary,
+    // a replica may not have the row yet.
+    @Transactional
+    @Query("select r " +
+            "from IdempotentResponse r " +
+            "where r.requestKey = ?1 " +
+            "and r.expiresAt > ?2")
+    Optional<IdempotentResponse> findOnPrimary(String requestKey, LocalDateTime dateTime);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotentResponse r " +
+            "where r.requestKey = ?1 " +
+            "and r.expiresAt <= ?2")
+    int deleteExpired(String requestKey, LocalDateTime dateTime);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotentResponse r " +
+            "set r.state = ?3, " +
+            "r.status = ?4, " +
+            "r.contentType = ?5, " +
+            "r.body = ?6, " +
+            "r.expiresAt = ?7 " +
+            "where r.requestKey = ?1 " +
+            "and r.state = ?2")
+    int updateResponse(String requestKey, IdempotencyState expectedState, IdempotencyState state, Integer status,
+                       String contentType, String body, LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotentResponse r " +
+            "where r.requestKey = ?1 " +
+            "and r.state = ?2")
+    int deleteByRequestKeyAndState(String requestKey, IdempotencyState state);
+
+    @Modifying
+    @Query("delete from IdempotentResponse r " +
+            "where r.expiresAt <= ?1")
+    int deleteAllExpired(LocalDateTime dateTime);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.idempotency.service;
+
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    Optional<IdempotentResponse> find(String requestKey);
+
+    // Empty when the caller now owns the key, otherwise the pending or completed record that holds it
+    Optional<IdempotentResponse> reserve(String requestKey, String requestHash);
+
+    void complete(String requestKey, String requestHash, int status, String contentType, String body);
+
+    void release(String requestKey);
+
+    void removeExpired();
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.idempotency.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+import ru.practicum.shareit.idempotency.repository.IdempotentResponseRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// A key is reserved with a PENDING row before the request runs, so the primary key decides which
+// instance executes it. The row becomes COMPLETED with the response, or is removed when the request fails.
+// A PENDING row left by a crashed instance stops blocking the key after pendingTtl.
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private final IdempotentResponseRepository idempotentResponseRepository;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+    private final Map<String, IdempotentResponse> cache;
+
+    public IdempotencyServiceImpl(IdempotentResponseRepository idempotentResponseRepository,
+                                  @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${shareit.idempotency.pending-ttl:PT1M}") Duration pendingTtl,
+                                  @Value("${shareit.idempotency.max-entries:10000}") int maxEntries) {
+        this.idempotentResponseRepository = idempotentResponseRepository;
+        this.ttl = ttl;
+        this.pendingTtl = pendingTtl;
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String requestKey) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotentResponse> cached = findCached(requestKey, now);
+
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        Optional<IdempotentResponse> stored = idempotentResponseRepository.findByRequestKeyAndExpiresAtAfter(requestKey, now)
+                .filter(response -> response.getState() == IdempotencyState.COMPLETED);
+        stored.ifPresent(this::cache);
+        return stored;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> reserve(String requestKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotentResponse> cached = findCached(requestKey, now);
+
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        IdempotentResponse reservation = IdempotentResponse.builder()
+                .requestKey(requestKey)
+                .requestHash(requestHash)
+                .state(IdempotencyState.PENDING)
+                .expiresAt(now.plus(pendingTtl))
+                .build();
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                idempotentResponseRepository.insert(reservation);
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotentResponse> stored = idempotentResponseRepository.findOnPrimary(requestKey, now);
+
+                if (stored.isPresent()) {
+                    if (stored.get().getState() == IdempotencyState.COMPLETED) {
+                        cache(stored.get());
+                    }
+                    return stored;
+                }
+
+                if (attempt > 0) {
+                    throw e;
+                }
+
+                // The conflicting row has expired but has not been cleaned up yet
+                idempotentResponseRepository.deleteExpired(requestKey, now);
+            }
+        }
+    }
+
+    @Override
+    public void complete(String requestKey, String requestHash, int status, String contentType, String body) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int updated = idempotentResponseRepository.updateResponse(requestKey, IdempotencyState.PENDING,
+                IdempotencyState.COMPLETED, status, contentType, body, expiresAt);
+
+        if (updated == 0) {
+            // The reservation outlived pendingTtl and another request has taken the key over
+            log.warn("Reservation for idempotency key {} was lost, the response is not stored.", requestKey);
+            return;
+        }
+
+        cache(IdempotentResponse.builder()
+                .requestKey(requestKey)
+                .requestHash(requestHash)
+                .state(IdempotencyState.COMPLETED)
+                .status(status)
+                .contentType(contentType)
+                .body(body)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Override
+    public void release(String requestKey) {
+        idempotentResponseRepository.deleteByRequestKeyAndState(requestKey, IdempotencyState.PENDING);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval:PT10M}")
+    public void removeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+
+        synchronized (cache) {
+            cache.values().removeIf(response -> !response.getExpiresAt().isAfter(now));
+        }
+
+        int removed = idempotentResponseRepository.deleteAllExpired(now);
+        if (removed > 0) {
+            log.info("Removed {} expired idempotency keys.", removed);
+        }
+    }
+
+    private Optional<IdempotentResponse> findCached(String requestKey, LocalDateTime now) {
+        IdempotentResponse cached;
+
+        synchronized (cache) {
+            cached = cache.get(requestKey);
+        }
+
+        return cached != null && cached.getExpiresAt().isAfter(now) ? Optional.of(cached) : Optional.empty();
+    }
+
+    private void cache(IdempotentResponse response) {
+        synchronized (cache) {
+            cache.put(response.getRequestKey(), response);
+        }
+    }
+
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        private LruCache(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentResponseDto;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
@@ -41,9 +46,18 @@ public class ItemController {
     public List<ItemResponseDto> getAllByUserId(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("GET request to get all items by user with ID: {}.", userId);
-        return itemService.getAll(userId, from, size);
+        return itemService.getAll(userId, from, size, fields);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResponseDto<ItemResponseDto> getByIds(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam List<Long> ids) {
+        log.info("GET request to get items with IDs: {}.", ids);
+        return itemService.getByIds(userId, ids);
     }
 
     @GetMapping("{itemId}")
@@ -58,10 +72,14 @@ public class ItemController {
     public List<ItemResponseDto> search(
             @RequestHeader(OWNER_ID_HEADER) Long userId,
             @RequestParam(value = "text") String searchCriteria,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) List<Double> near,
+            @RequestParam(required = false) Double radius,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
             @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET request to get all items by search criteria: {}.", searchCriteria);
-        return itemService.searchItem(userId, searchCriteria, from, size);
+        return itemService.searchItem(userId, searchCriteria, start, end, near, radius, from, size);
     }
 
     @PostMapping("{itemId}/comment")
@@ -72,4 +90,14 @@ public class ItemController {
         log.info("POST request to add comment from user with ID: {}.", userId);
         return itemService.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET request to get availability of item with ID: {} from {} to {}.", itemId, from, to);
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
 }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.dto.ItemResponseShortDto;
+import ru.practicum.shareit.item.model.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.util.geo.GeoGrid;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,18 +25,29 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .latitude(item.getLatitude())
+                .longitude(item.getLongitude())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
 
     public Item toItem(ItemDto itemDto, User owner) {
-        return Item.builder()
+        Item item = Item.builder()
                 .id(itemDto.getId())
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
                 .owner(owner)
                 .build();
+        setLocation(item, itemDto.getLatitude(), itemDto.getLongitude());
+        return item;
+    }
+
+    // The grid cell is derived from the coordinates and must be changed together with them.
+    public void setLocation(Item item, Double latitude, Double longitude) {
+        item.setLatitude(latitude);
+        item.setLongitude(longitude);
+        item.setGridCell(latitude != null && longitude != null ? GeoGrid.cell(latitude, longitude) : null);
     }
 
     public ItemResponseShortDto toItemResponseShortDto(Item item) {
@@ -44,6 +61,66 @@ public class ItemMapper {
                 .build();
     }
 
+    public void setLastAndNextBooking(ItemResponseDto itemResponseDto, List<Booking> bookings, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        Booking lastBooking = bookings.stream()
+                .filter(booking -> !booking.getStart().isAfter(now))
+                .reduce((first, second) -> second)
+                .orElse(null);
+        Booking nextBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .findFirst()
+                .orElse(null);
+        itemResponseDto.setLastBooking(lastBooking != null ? BookingMapper.toBookingShortDto(lastBooking) : null);
+        itemResponseDto.setNextBooking(nextBooking != null ? BookingMapper.toBookingShortDto(nextBooking) : null);
+    }
+
+    // Bookings must be sorted by start, so overlapping ones are merged in a single pass.
+    public ItemAvailabilityDto toItemAvailabilityDto(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                     List<TimeSlotDto> bookings) {
+        List<TimeSlotDto> busy = new ArrayList<>();
+
+        for (TimeSlotDto booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            TimeSlotDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new TimeSlotDto(start, end));
+            }
+        }
+
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+
+        for (TimeSlotDto slot : busy) {
+            if (slot.getStart().isAfter(freeStart)) {
+                free.add(new TimeSlotDto(freeStart, slot.getStart()));
+            }
+
+            freeStart = slot.getEnd();
+        }
+
+        if (freeStart.isBefore(to)) {
+            free.add(new TimeSlotDto(freeStart, to));
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
     public List<ItemResponseDto> toItemResponseDto(Iterable<Item> items) {
         List<ItemResponseDto> result = new ArrayList<>();
 
@@ -12,5 +12,7 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
+    private Double latitude;
+    private Double longitude;
     private Long requestId;
 }
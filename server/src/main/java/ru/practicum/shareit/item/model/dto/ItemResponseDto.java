@@ -15,6 +15,8 @@ public class ItemResponseDto {
     private String name;
     private String description;
     private Boolean available;
+    private Double latitude;
+    private Double longitude;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentResponseDto> comments;
@@ -29,6 +29,13 @@ public class Item {
     @Column(nullable = false)
     private Boolean available;
 
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "grid_cell")
+    private Long gridCell;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "owner_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -2,12 +2,35 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.util.geo.GeoGrid;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String DISTANCE_KM = "2 * " + GeoGrid.EARTH_RADIUS_KM + " * asin(least(1, sqrt(" +
+            "power(sin(radians(i.latitude - ?3) / 2), 2) + " +
+            "cos(radians(?3)) * cos(radians(i.latitude)) * power(sin(radians(i.longitude - ?4) / 2), 2))))";
+    String NEAR = "i.grid_cell IN (?2) " +
+            "AND i.latitude BETWEEN ?6 AND ?7 " +
+            "AND i.longitude BETWEEN ?8 AND ?9 " +
+            "AND i.available = true " +
+            "AND (lower(i.name) LIKE lower(concat('%', ?1, '%')) " +
+            "OR lower(i.description) LIKE lower(concat('%', ?1, '%'))) ";
+
     @Query("select i " +
             "from Item i " +
             "where i.available = true " +
@@ -15,9 +38,85 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "or lower(i.description) like lower(concat('%', ?1, '%')))")
     List<Item> search(String text, Pageable pageable);
 
+    @Query("select i " +
+            "from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like lower(concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
+            "and not exists (select b.id " +
+            "from Booking b " +
+            "where b.item = i " +
+            "and b.status = ?2 " +
+            "and b.start > ?3 " +
+            "and b.start < ?5 " +
+            "and b.end > ?4)")
+    List<Item> searchAvailable(String text, BookingStatus status, LocalDateTime earliestStart,
+                               LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    // Items within radiusKm (?5) of the point (?3, ?4), nearest first. The grid cells (?2) and the bounding box
+    // (?6 to ?9) keep the scan on the cells index, the haversine distance is computed once in the subquery.
+    @Query(value = "SELECT * FROM (SELECT i.*, " + DISTANCE_KM + " AS distance_km " +
+            "FROM items i " +
+            "WHERE " + NEAR + ") n " +
+            "WHERE n.distance_km <= ?5 " +
+            "ORDER BY n.distance_km, n.id", nativeQuery = true)
+    List<Item> searchNear(String text, Collection<Long> cells, double latitude, double longitude, double radiusKm,
+                          double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                          Pageable pageable);
+
+    @Query(value = "SELECT * FROM (SELECT i.*, " + DISTANCE_KM + " AS distance_km " +
+            "FROM items i " +
+            "WHERE " + NEAR +
+            "AND NOT EXISTS (SELECT 1 " +
+            "FROM bookings b " +
+            "WHERE b.item_id = i.id " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start_date > ?10 " +
+            "AND b.start_date < ?12 " +
+            "AND b.end_date > ?11)) n " +
+            "WHERE n.distance_km <= ?5 " +
+            "ORDER BY n.distance_km, n.id", nativeQuery = true)
+    List<Item> searchAvailableNear(String text, Collection<Long> cells, double latitude, double longitude,
+                                   double radiusKm, double minLatitude, double maxLatitude, double minLongitude,
+                                   double maxLongitude, LocalDateTime earliestStart, LocalDateTime start,
+                                   LocalDateTime end, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item i " +
+            "where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    // Locks in id order, so two callers locking overlapping sets can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item i " +
+            "where i.id in ?1 " +
+            "order by i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> ids);
+
     List<Item> findItemsByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
 
     List<Item> findItemsByRequestId(Long requestId);
 
     List<Item> findItemsByRequestIdIn(List<Long> requestId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select i " +
+            "from Item i " +
+            "where i.owner.id = ?1 " +
+            "order by i.id")
+    Stream<Item> streamAllByOwnerId(Long ownerId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select i " +
+            "from Item i " +
+            "order by i.id")
+    Stream<Item> streamAll();
 }
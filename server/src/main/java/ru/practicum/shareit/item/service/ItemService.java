@@ -2,9 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentResponseDto;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -13,11 +16,16 @@ public interface ItemService {
 
     ItemResponseDto update(Long userId, ItemDto itemDto, Long itemId);
 
-    List<ItemResponseDto> getAll(Long userId, Integer from, Integer size);
+    List<ItemResponseDto> getAll(Long userId, Integer from, Integer size, String fields);
 
     ItemResponseDto getById(Long userId, Long itemId);
 
-    List<ItemResponseDto> searchItem(Long userId, String searchCriteria, Integer from, Integer size);
+    MultiGetResponseDto<ItemResponseDto> getByIds(Long userId, List<Long> itemIds);
+
+    List<ItemResponseDto> searchItem(Long userId, String searchCriteria, LocalDateTime start, LocalDateTime end,
+                                     List<Double> near, Double radius, Integer from, Integer size);
 
     CommentResponseDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
 }
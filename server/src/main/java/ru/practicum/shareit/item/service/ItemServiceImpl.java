@@ -7,14 +7,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.entity.ArchivedBooking;
 import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.rental.CompletedRentalIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.PermissionDeniedException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.dto.CommentDto;
 import ru.practicum.shareit.item.model.dto.CommentResponseDto;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.dto.ItemResponseDto;
@@ -22,9 +27,15 @@ import ru.practicum.shareit.item.model.entity.Comment;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.fields.Fields;
+import ru.practicum.shareit.util.geo.GeoGrid;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 import ru.practicum.shareit.util.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.entity.User;
 import ru.practicum.shareit.booking.enums.BookingStatus;
@@ -39,16 +50,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final List<BookingStatus> BUSY_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final OutboxService outboxService;
+    private final CompletedRentalIndex completedRentalIndex;
+    private final BookingDurationBound bookingDurationBound;
 
     @Override
     @Transactional
     public ItemResponseDto create(Long userId, ItemDto itemDto) {
         User owner = getUserById(userId);
+        validateLocation(itemDto.getLatitude(), itemDto.getLongitude());
         Item item = ItemMapper.toItem(itemDto, owner);
 
         if (itemDto.getRequestId() != null) {
@@ -58,7 +76,9 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        return ItemMapper.toItemResponseDto(itemRepository.save(item));
+        ItemResponseDto itemResponseDto = ItemMapper.toItemResponseDto(itemRepository.save(item));
+        outboxService.publish(AggregateType.ITEM, itemResponseDto.getId(), EventType.ITEM_CREATED, itemResponseDto);
+        return itemResponseDto;
     }
 
     @Override
@@ -85,12 +105,22 @@ public class ItemServiceImpl implements ItemService {
             itemToUpdate.setAvailable(itemDto.getAvailable());
         }
 
-        return ItemMapper.toItemResponseDto(itemToUpdate);
+        if (itemDto.getLatitude() != null || itemDto.getLongitude() != null) {
+            validateLocation(itemDto.getLatitude(), itemDto.getLongitude());
+            ItemMapper.setLocation(itemToUpdate, itemDto.getLatitude(), itemDto.getLongitude());
+        }
+
+        ItemResponseDto itemResponseDto = ItemMapper.toItemResponseDto(itemToUpdate);
+        outboxService.publish(AggregateType.ITEM, itemId, EventType.ITEM_UPDATED, itemResponseDto);
+        return itemResponseDto;
     }
 
     @Override
-    public List<ItemResponseDto> getAll(Long userId, Integer from, Integer size) {
+    public List<ItemResponseDto> getAll(Long userId, Integer from, Integer size, String fields) {
         getUserById(userId);
+        Set<String> selected = Fields.parse(fields, ItemResponseDto.class);
+        boolean withBookings = Fields.includes(selected, "lastBooking") || Fields.includes(selected, "nextBooking");
+        boolean withComments = Fields.includes(selected, "comments");
         Pageable pageable = OffsetPageRequest.of(from, size);
         List<Item> itemList = itemRepository.findItemsByOwnerIdOrderByIdAsc(userId, pageable);
 
@@ -98,13 +128,14 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        Map<Long, List<Booking>> bookingsByItem = bookingRepository
+        // Bookings and comments that were not selected are not queried at all
+        Map<Long, List<Booking>> bookingsByItem = !withBookings ? Map.of() : bookingRepository
                 .findAllByItemIdInAndStatusOrderByStartAsc(itemIds, BookingStatus.APPROVED)
                 .stream()
                 .collect(Collectors.groupingBy(b -> b.getItem().getId()));
 
         Sort sortByCreatedDesc = Sort.by(Sort.Direction.DESC, "created");
-        Map<Long, List<Comment>> commentsByItem = commentRepository
+        Map<Long, List<Comment>> commentsByItem = !withComments ? Map.of() : commentRepository
                 .findAllByItemIn(itemList, sortByCreatedDesc)
                 .stream()
                 .collect(Collectors.groupingBy(c -> c.getItem().getId()));
@@ -112,28 +143,25 @@ public class ItemServiceImpl implements ItemService {
         List<ItemResponseDto> itemDtoList = new ArrayList<>();
 
         for (Item item : itemList) {
-            List<Booking> bookings = bookingsByItem.getOrDefault(item.getId(), List.of());
             ItemResponseDto itemDto = ItemMapper.toItemResponseDto(item);
-            LocalDateTime now = LocalDateTime.now();
-
-            if (!bookings.isEmpty()) {
-                Booking lastBooking = bookings.stream()
-                        .filter(booking -> !booking.getStart().isAfter(now))
-                        .reduce((first, second) -> second)
-                        .orElse(null);
-                Booking nextBooking = bookings.stream()
-                        .filter(booking -> booking.getStart().isAfter(now))
-                        .findFirst()
-                        .orElse(null);
-                itemDto.setLastBooking(lastBooking != null ? BookingMapper.toBookingShortDto(lastBooking) : null);
-                itemDto.setNextBooking(nextBooking != null ? BookingMapper.toBookingShortDto(nextBooking) : null);
+
+            if (withBookings) {
+                List<Booking> bookings = bookingsByItem.getOrDefault(item.getId(), List.of());
+                ItemMapper.setLastAndNextBooking(itemDto, bookings, LocalDateTime.now());
+            }
+
+            if (withComments) {
+                List<CommentResponseDto> comments = CommentMapper.toCommentResponseDto(commentsByItem.getOrDefault(item.getId(), List.of()));
+                itemDto.setComments(comments);
             }
 
-            List<CommentResponseDto> comments = CommentMapper.toCommentResponseDto(commentsByItem.getOrDefault(item.getId(), List.of()));
-            itemDto.setComments(comments);
             itemDtoList.add(itemDto);
         }
 
+        if (withBookings) {
+            setArchivedLastBookings(itemDtoList);
+        }
+
         return itemDtoList;
     }
 
@@ -156,10 +184,66 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemResponseDto> searchItem(Long userId, String searchCriteria, Integer from, Integer size) {
+    public MultiGetResponseDto<ItemResponseDto> getByIds(Long userId, List<Long> itemIds) {
+        getUserById(userId);
+        List<Item> itemList = itemRepository.findAllById(itemIds);
+
+        // As in getById, last and next bookings are shown only for the user's own items
+        List<Long> ownedItemIds = itemList.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<Booking>> bookingsByItem = ownedItemIds.isEmpty() ? Map.of() : bookingRepository
+                .findAllByItemIdInAndStatusOrderByStartAsc(ownedItemIds, BookingStatus.APPROVED)
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+
+        Sort sortByCreatedDesc = Sort.by(Sort.Direction.DESC, "created");
+        Map<Long, List<Comment>> commentsByItem = itemList.isEmpty() ? Map.of() : commentRepository
+                .findAllByItemIn(itemList, sortByCreatedDesc)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemResponseDto> itemDtos = new HashMap<>();
+        List<ItemResponseDto> ownedItemDtos = new ArrayList<>();
+
+        for (Item item : itemList) {
+            ItemResponseDto itemDto = ItemMapper.toItemResponseDto(item);
+            itemDto.setComments(CommentMapper.toCommentResponseDto(commentsByItem.getOrDefault(item.getId(), List.of())));
+
+            if (ownedItemIds.contains(item.getId())) {
+                ItemMapper.setLastAndNextBooking(itemDto, bookingsByItem.getOrDefault(item.getId(), List.of()), now);
+                ownedItemDtos.add(itemDto);
+            }
+
+            itemDtos.put(item.getId(), itemDto);
+        }
+
+        setArchivedLastBookings(ownedItemDtos);
+        return MultiGetResponseDto.of(itemIds, itemDtos);
+    }
+
+    @Override
+    public List<ItemResponseDto> searchItem(Long userId, String searchCriteria, LocalDateTime start, LocalDateTime end,
+                                            List<Double> near, Double radius, Integer from, Integer size) {
         getUserById(userId);
+        boolean hasPeriod = validatePeriod(start, end);
+
+        if (near != null || radius != null) {
+            return searchNear(searchCriteria, hasPeriod, start, end, near, radius, from, size);
+        }
+
         Pageable pageable = OffsetPageRequest.of(from, size);
-        List<Item> items = itemRepository.search(searchCriteria, pageable);
+
+        if (!hasPeriod) {
+            return ItemMapper.toItemResponseDto(itemRepository.search(searchCriteria, pageable));
+        }
+
+        // Overlapping bookings are excluded by the query itself, so the page is filled with free items only
+        List<Item> items = itemRepository.searchAvailable(searchCriteria, BookingStatus.APPROVED,
+                bookingDurationBound.earliestStart(start), start, end, pageable);
         return ItemMapper.toItemResponseDto(items);
     }
 
@@ -167,23 +251,78 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         User user = getUserById(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
-                new NoSuchElementException(String.format("Item with ID: %d not found.", itemId)));
-        Boolean isExists = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
-                userId, itemId, BookingStatus.APPROVED, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Item item;
 
-        if (!isExists) {
-            throw new NotAvailableException("You haven't booked this item yet.");
+        if (completedRentalIndex.contains(userId, itemId, now)) {
+            // A completed rental means that the item exists, the comment only needs a reference to it
+            item = itemRepository.getReferenceById(itemId);
+        } else {
+            item = itemRepository.findById(itemId).orElseThrow(() ->
+                    new NoSuchElementException(String.format("Item with ID: %d not found.", itemId)));
+            boolean isExists = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                    userId, itemId, BookingStatus.APPROVED, now)
+                    || bookingArchiveRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                    userId, itemId, BookingStatus.APPROVED, now);
+
+            if (!isExists) {
+                throw new NotAvailableException("You haven't booked this item yet.");
+            }
+
+            completedRentalIndex.add(userId, itemId);
         }
 
         Comment comment = CommentMapper.toComment(commentDto, item, user);
-        return CommentMapper.toCommentResponseDto(commentRepository.save(comment));
+        CommentResponseDto commentResponseDto = CommentMapper.toCommentResponseDto(commentRepository.save(comment));
+        outboxService.publish(AggregateType.ITEM, itemId, EventType.COMMENT_ADDED, commentResponseDto);
+        return commentResponseDto;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        getUserById(userId);
+
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the period must be before its end.");
+        }
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NoSuchElementException(String.format("Item with ID: %d not found.", itemId));
+        }
+
+        return ItemMapper.toItemAvailabilityDto(itemId, from, to, bookingRepository.findTimeSlotsByItemId(
+                itemId, BUSY_STATUSES, bookingDurationBound.earliestStart(from), from, to));
+    }
+
+    private void setArchivedLastBookings(List<ItemResponseDto> itemDtoList) {
+        Map<Long, ItemResponseDto> withoutLastBooking = itemDtoList.stream()
+                .filter(itemDto -> itemDto.getLastBooking() == null)
+                .collect(Collectors.toMap(ItemResponseDto::getId, itemDto -> itemDto));
+
+        if (withoutLastBooking.isEmpty()) {
+            return;
+        }
+
+        for (ArchivedBooking archivedBooking : bookingArchiveRepository.findLatestByItemIdIn(
+                new ArrayList<>(withoutLastBooking.keySet()), BookingStatus.APPROVED)) {
+            ItemResponseDto itemDto = withoutLastBooking.get(archivedBooking.getItem().getId());
+
+            if (itemDto.getLastBooking() == null) {
+                itemDto.setLastBooking(BookingMapper.toBookingShortDto(BookingMapper.toBooking(archivedBooking)));
+            }
+        }
     }
 
     private void setLastBooking(ItemResponseDto itemResponseDto, LocalDateTime dateTime) {
         Booking lastBooking = bookingRepository.findFirstBookingByItemIdAndStartLessThanEqualAndStatusOrderByStartDesc(
                 itemResponseDto.getId(), dateTime, BookingStatus.APPROVED);
 
+        if (lastBooking == null) {
+            ArchivedBooking archivedBooking = bookingArchiveRepository.findFirstByItemIdAndStatusOrderByStartDesc(
+                    itemResponseDto.getId(), BookingStatus.APPROVED);
+            lastBooking = archivedBooking != null ? BookingMapper.toBooking(archivedBooking) : null;
+        }
+
         if (lastBooking != null) {
             itemResponseDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
         } else {
@@ -206,6 +345,58 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentResponseDto(commentRepository.findAllByItemId(itemId));
     }
 
+    private boolean validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return false;
+        }
+
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Both start and end of the period must be set.");
+        }
+
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("The start of the period must be before its end.");
+        }
+
+        return true;
+    }
+
+    private List<ItemResponseDto> searchNear(String searchCriteria, boolean hasPeriod, LocalDateTime start,
+                                             LocalDateTime end, List<Double> near, Double radius,
+                                             Integer from, Integer size) {
+        if (near == null || near.size() != 2 || radius == null || radius <= 0) {
+            throw new IllegalArgumentException("Search near a point needs 'near' as latitude,longitude and a positive 'radius'.");
+        }
+
+        double latitude = near.get(0);
+        double longitude = near.get(1);
+        List<Long> cells = GeoGrid.cellsWithin(latitude, longitude, radius);
+        GeoGrid.Box box = GeoGrid.boxAround(latitude, longitude, radius);
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        List<Item> items = hasPeriod
+                ? itemRepository.searchAvailableNear(searchCriteria, cells, latitude, longitude, radius,
+                        box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude(),
+                        bookingDurationBound.earliestStart(start), start, end, pageable)
+                : itemRepository.searchNear(searchCriteria, cells, latitude, longitude, radius,
+                        box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude(),
+                        pageable);
+        return ItemMapper.toItemResponseDto(items);
+    }
+
+    private void validateLocation(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return;
+        }
+
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Both latitude and longitude must be set.");
+        }
+
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
+    }
+
     private User getUserById(Long id) {
         return userRepository.findById(id).orElseThrow(() ->
                 new NoSuchElementException(String.format("User with ID: %d not found.", id)));
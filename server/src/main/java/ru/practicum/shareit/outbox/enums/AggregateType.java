@@ -0,0 +1,6 @@
+package ru.practicum.shareit.outbox.enums;
+
+public enum AggregateType {
+    BOOKING,
+    ITEM
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.outbox.enums;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    COMMENT_ADDED
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox.listener;
+
+import ru.practicum.shareit.outbox.model.entity.OutboxEvent;
+
+import java.util.List;
+
+// Called inside a transaction together with the delivery mark. Delivery is at least once, so listeners
+// whose side effects live outside that transaction must be idempotent.
+public interface OutboxEventListener {
+
+    void onEvents(List<OutboxEvent> events);
+}
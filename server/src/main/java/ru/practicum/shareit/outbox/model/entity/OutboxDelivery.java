@@ -0,0 +1,32 @@
+package ru.practicum.shareit.outbox.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+// A listener that has handled an event
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_deliveries")
+public class OutboxDelivery {
+    @EmbeddedId
+    private Key id;
+
+    @Getter
+    @Setter
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "event_id", nullable = false)
+        private Long eventId;
+
+        @Column(nullable = false)
+        private String listener;
+    }
+}
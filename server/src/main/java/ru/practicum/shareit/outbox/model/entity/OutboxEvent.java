@@ -0,0 +1,59 @@
+package ru.practicum.shareit.outbox.model.entity;
+
+import lombok.*;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EventType eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime created;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "next_attempt_at", columnDefinition = "TIMESTAMP")
+    private LocalDateTime nextAttemptAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean parked = false;
+
+    // Set by the poller that is delivering the event, other pollers skip it until then
+    @Column(name = "claimed_until", columnDefinition = "TIMESTAMP")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.outbox.poller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.outbox.listener.OutboxEventListener;
+import ru.practicum.shareit.outbox.model.entity.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxDeliveryRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Delivery is at least once per listener. A batch is claimed for claimTimeout with a conditional update, so
+// several server instances never deliver the same events at once. Each listener gets the events it has not handled
+// yet, and its delivery rows are written in the same transaction as the listener's own work, so a failing
+// listener neither blocks nor repeats the others. Events a listener keeps failing on are retried with
+// exponential backoff and parked after maxAttempts, parked events stay in the table for inspection.
+@Slf4j
+@Component
+public class OutboxPoller {
+    private static final int MAX_ERROR_LENGTH = 1024;
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final List<OutboxEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration claimTimeout;
+
+    public OutboxPoller(OutboxEventRepository outboxEventRepository,
+                        OutboxDeliveryRepository outboxDeliveryRepository,
+                        List<OutboxEventListener> listeners,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                        @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                        @Value("${shareit.outbox.retry-backoff:PT5S}") Duration retryBackoff,
+                        @Value("${shareit.outbox.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval:PT1S}")
+    public int poll() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claim(now));
+
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Set<String>> delivered = findDelivered(events);
+        Map<Long, String> failures = new HashMap<>();
+
+        for (OutboxEventListener listener : listeners) {
+            String name = nameOf(listener);
+            List<OutboxEvent> pending = events.stream()
+                    .filter(event -> !delivered.get(event.getId()).contains(name))
+                    .collect(Collectors.toList());
+
+            if (!pending.isEmpty()) {
+                deliver(listener, name, pending, delivered, failures);
+            }
+        }
+
+        Set<String> names = listeners.stream()
+                .map(OutboxPoller::nameOf)
+                .collect(Collectors.toSet());
+        List<Long> completed = events.stream()
+                .map(OutboxEvent::getId)
+                .filter(id -> delivered.get(id).containsAll(names))
+                .collect(Collectors.toList());
+
+        if (!completed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(completed);
+        }
+
+        if (!failures.isEmpty()) {
+            outboxEventRepository.saveAll(events.stream()
+                    .filter(event -> failures.containsKey(event.getId()))
+                    .map(event -> recordFailure(event, failures.get(event.getId()), now))
+                    .collect(Collectors.toList()));
+        }
+
+        log.debug("Published {} outbox events to {} listeners, {} failed.", completed.size(), listeners.size(),
+                failures.size());
+        return completed.size();
+    }
+
+    private List<OutboxEvent> claim(LocalDateTime now) {
+        List<Long> ids = outboxEventRepository.findDueIds(now, PageRequest.of(0, batchSize));
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Another poller may have claimed some of the ids in between, only the rows with our token are ours
+        String claimToken = UUID.randomUUID().toString();
+        outboxEventRepository.claim(ids, claimToken, now.plus(claimTimeout), now);
+        return outboxEventRepository.findAllByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    private Map<Long, Set<String>> findDelivered(List<OutboxEvent> events) {
+        Map<Long, Set<String>> delivered = events.stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, event -> new HashSet<>()));
+        outboxDeliveryRepository.findAllByIdEventIdIn(delivered.keySet())
+                .forEach(delivery -> delivered.get(delivery.getId().getEventId())
+                        .add(delivery.getId().getListener()));
+        return delivered;
+    }
+
+    private void deliver(OutboxEventListener listener, String name, List<OutboxEvent> events,
+                         Map<Long, Set<String>> delivered, Map<Long, String> failures) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                listener.onEvents(events);
+                outboxDeliveryRepository.markDelivered(events.stream()
+                        .map(OutboxEvent::getId)
+                        .collect(Collectors.toList()), name);
+            });
+        } catch (RuntimeException e) {
+            if (events.size() > 1) {
+                // One bad event should not hold back the rest of the batch
+                events.forEach(event -> deliver(listener, name, List.of(event), delivered, failures));
+            } else {
+                failures.merge(events.get(0).getId(), String.format("%s: %s", name, e.getMessage()),
+                        (first, second) -> first + "; " + second);
+            }
+            return;
+        }
+
+        events.forEach(event -> delivered.get(event.getId()).add(name));
+    }
+
+    private OutboxEvent recordFailure(OutboxEvent event, String error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        event.setNextAttemptAt(now.plus(retryBackoff
+                .multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_DOUBLINGS))));
+        event.setClaimedUntil(null);
+        event.setClaimToken(null);
+
+        if (attempts >= maxAttempts) {
+            event.setParked(true);
+            log.error("Outbox event with ID: {} was parked after {} attempts. Error details: {}.",
+                    event.getId(), attempts, error);
+        } else {
+            log.warn("Outbox event with ID: {} failed, attempt {} of {}. Error details: {}.",
+                    event.getId(), attempts, maxAttempts, error);
+        }
+
+        return event;
+    }
+
+    private static String nameOf(OutboxEventListener listener) {
+        return ClassUtils.getUserClass(listener).getName();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.model.entity.OutboxDelivery;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, OutboxDelivery.Key> {
+
+    List<OutboxDelivery> findAllByIdEventIdIn(Collection<Long> eventIds);
+
+    @Modifying
+    @Query(value = "insert into outbox_deliveries (event_id, listener) " +
+            "select id, ?2 " +
+            "from outbox_events " +
+            "where id in ?1", nativeQuery = true)
+    int markDelivered(Collection<Long> eventIds, String listener);
+}
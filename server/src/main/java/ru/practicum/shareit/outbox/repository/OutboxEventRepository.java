@@ -0,0 +1,34 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.model.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e.id " +
+            "from OutboxEvent e " +
+            "where e.parked = false " +
+            "and (e.nextAttemptAt is null or e.nextAttemptAt <= ?1) " +
+            "and (e.claimedUntil is null or e.claimedUntil <= ?1) " +
+            "order by e.id")
+    List<Long> findDueIds(LocalDateTime dateTime, Pageable pageable);
+
+    // Conditional lease: a concurrent poller that selected the same ids waits for the row lock, re-checks
+    // claimedUntil and skips the rows, so every event is claimed by one token only
+    @Modifying
+    @Query("update OutboxEvent e " +
+            "set e.claimToken = ?2, e.claimedUntil = ?3 " +
+            "where e.id in ?1 " +
+            "and e.parked = false " +
+            "and (e.claimedUntil is null or e.claimedUntil <= ?4)")
+    int claim(Collection<Long> ids, String claimToken, LocalDateTime claimedUntil, LocalDateTime dateTime);
+
+    List<OutboxEvent> findAllByClaimTokenOrderByIdAsc(String claimToken);
+}
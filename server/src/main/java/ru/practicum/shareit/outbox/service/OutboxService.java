@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+
+public interface OutboxService {
+
+    void publish(AggregateType aggregateType, Long aggregateId, EventType eventType, Object payload);
+}
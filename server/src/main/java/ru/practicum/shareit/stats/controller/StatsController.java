@@ -0,0 +1,29 @@
+package ru.practicum.shareit.stats.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.stats.model.dto.ItemStatsDto;
+import ru.practicum.shareit.stats.service.ItemStatsService;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@Slf4j
+@RestController
+@AllArgsConstructor
+@RequestMapping("/stats")
+public class StatsController {
+    private final ItemStatsService itemStatsService;
+
+    @GetMapping("/items")
+    public List<ItemStatsDto> getItemStats(
+            @RequestHeader(OWNER_ID_HEADER) Long userId,
+            @RequestParam(name = "from", required = false) YearMonth from,
+            @RequestParam(name = "to", required = false) YearMonth to) {
+        log.info("GET request to get item statistics of owner with ID: {} from {} to {}.", userId, from, to);
+        return itemStatsService.getByOwnerId(userId, from, to);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.stats.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.stats.model.dto.ItemMonthlyStatsView;
+import ru.practicum.shareit.stats.model.dto.ItemStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@UtilityClass
+public class ItemStatsMapper {
+    private static final long MINUTES_PER_DAY = Duration.ofDays(1).toMinutes();
+
+    public ItemStatsDto toItemStatsDto(ItemMonthlyStatsView stats) {
+        YearMonth month = YearMonth.from(stats.getMonthStart());
+        double bookedDays = (double) stats.getBookedMinutes() / MINUTES_PER_DAY;
+
+        return ItemStatsDto.builder()
+                .itemId(stats.getItemId())
+                .itemName(stats.getItemName())
+                .month(month)
+                .bookedDays(round(bookedDays, 100))
+                .utilization(round(bookedDays * 100 / month.lengthOfMonth(), 10))
+                .bookings(stats.getBookingsCount())
+                .renters(stats.getRentersCount())
+                .build();
+    }
+
+    public List<ItemStatsDto> toItemStatsDto(Iterable<ItemMonthlyStatsView> stats) {
+        List<ItemStatsDto> result = new ArrayList<>();
+
+        for (ItemMonthlyStatsView view : stats) {
+            result.add(toItemStatsDto(view));
+        }
+
+        return result;
+    }
+
+    // Splits a booking into the minutes it takes in every month it touches
+    public Map<YearMonth, Long> toMinutesByMonth(LocalDateTime start, LocalDateTime end) {
+        Map<YearMonth, Long> minutesByMonth = new LinkedHashMap<>();
+        LocalDateTime from = start;
+
+        while (from.isBefore(end)) {
+            YearMonth month = YearMonth.from(from);
+            LocalDateTime nextMonth = month.plusMonths(1).atDay(1).atStartOfDay();
+            LocalDateTime to = end.isBefore(nextMonth) ? end : nextMonth;
+            minutesByMonth.put(month, Duration.between(from, to).toMinutes());
+            from = to;
+        }
+
+        return minutesByMonth;
+    }
+
+    private double round(double value, int scale) {
+        return (double) Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.stats.model.dto;
+
+import java.time.LocalDate;
+
+// Row of ItemMonthlyStatsRepository.findAllByOwnerId
+public interface ItemMonthlyStatsView {
+    Long getItemId();
+
+    String getItemName();
+
+    LocalDate getMonthStart();
+
+    long getBookedMinutes();
+
+    int getBookingsCount();
+
+    int getRentersCount();
+}
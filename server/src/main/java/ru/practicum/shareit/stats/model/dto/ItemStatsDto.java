@@ -0,0 +1,21 @@
+package ru.practicum.shareit.stats.model.dto;
+
+import lombok.*;
+
+import java.time.YearMonth;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsDto {
+    private Long itemId;
+    private String itemName;
+    private YearMonth month;
+    private double bookedDays;
+    // Share of the month covered by approved bookings, in percent
+    private double utilization;
+    private int bookings;
+    private int renters;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.stats.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Approved booking as the statistics see it, read by the reconciliation without loading entities
+@Getter
+@AllArgsConstructor
+public class RentalPeriodDto {
+    private Long itemId;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
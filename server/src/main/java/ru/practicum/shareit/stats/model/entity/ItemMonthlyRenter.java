@@ -0,0 +1,35 @@
+package ru.practicum.shareit.stats.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "item_monthly_renters")
+public class ItemMonthlyRenter {
+    @EmbeddedId
+    private Key id;
+
+    @Getter
+    @Setter
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "item_id", nullable = false)
+        private Long itemId;
+
+        @Column(name = "month_start", nullable = false)
+        private LocalDate monthStart;
+
+        @Column(name = "booker_id", nullable = false)
+        private Long bookerId;
+    }
+}
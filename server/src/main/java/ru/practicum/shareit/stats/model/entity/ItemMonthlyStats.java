@@ -0,0 +1,26 @@
+package ru.practicum.shareit.stats.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "item_monthly_stats")
+public class ItemMonthlyStats {
+    @EmbeddedId
+    private ItemMonthKey id;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private long bookedMinutes;
+
+    @Column(name = "bookings_count", nullable = false)
+    private int bookingsCount;
+
+    @Column(name = "renters_count", nullable = false)
+    private int rentersCount;
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.stats.reconcile;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.stats.mapper.ItemStatsMapper;
+import ru.practicum.shareit.stats.model.dto.RentalPeriodDto;
+import ru.practicum.shareit.stats.model.entity.ItemMonthKey;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyRenter;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyStats;
+import ru.practicum.shareit.stats.repository.ItemMonthlyRenterRepository;
+import ru.practicum.shareit.stats.repository.ItemMonthlyStatsRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+// Rebuilds the monthly item statistics of recent months from the bookings themselves. The incremental updates
+// on approval keep the rows current between runs, this job corrects whatever they missed. Older months are left
+// as they are, their bookings may already be archived. The rows of an item are only rebuilt under its row lock,
+// the same lock an approval takes before recordApproved, so an approval either lands before the rebuild reads
+// the bookings or waits and increments the rebuilt rows.
+@Slf4j
+@Component
+public class ItemStatsReconciler {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingDurationBound bookingDurationBound;
+    private final ItemMonthlyStatsRepository itemMonthlyStatsRepository;
+    private final ItemMonthlyRenterRepository itemMonthlyRenterRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsBack;
+    private final int monthsAhead;
+    private final int batchSize;
+
+    public ItemStatsReconciler(BookingRepository bookingRepository,
+                               ItemRepository itemRepository,
+                               BookingDurationBound bookingDurationBound,
+                               ItemMonthlyStatsRepository itemMonthlyStatsRepository,
+                               ItemMonthlyRenterRepository itemMonthlyRenterRepository,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${shareit.stats.reconcile.months-back:1}") int monthsBack,
+                               @Value("${shareit.stats.reconcile.months-ahead:3}") int monthsAhead,
+                               @Value("${shareit.stats.reconcile.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.bookingDurationBound = bookingDurationBound;
+        this.itemMonthlyStatsRepository = itemMonthlyStatsRepository;
+        this.itemMonthlyRenterRepository = itemMonthlyRenterRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsBack = monthsBack;
+        this.monthsAhead = monthsAhead;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.stats.reconcile.interval:PT6H}",
+            initialDelayString = "${shareit.stats.reconcile.interval:PT6H}")
+    public int reconcile() {
+        return reconcile(YearMonth.now());
+    }
+
+    // Every batch of items is rebuilt in its own transaction, so a run never locks more than batchSize items
+    public int reconcile(YearMonth current) {
+        int rows = 0;
+
+        for (YearMonth month = current.minusMonths(monthsBack);
+             !month.isAfter(current.plusMonths(monthsAhead));
+             month = month.plusMonths(1)) {
+            YearMonth reconciled = month;
+            List<Long> itemIds = findItemIds(month);
+
+            for (int i = 0; i < itemIds.size(); i += batchSize) {
+                List<Long> batch = itemIds.subList(i, Math.min(i + batchSize, itemIds.size()));
+                rows += transactionTemplate.execute(status -> reconcileItems(reconciled, batch));
+            }
+        }
+
+        log.info("Reconciled {} item statistics rows from {} to {}.",
+                rows, current.minusMonths(monthsBack), current.plusMonths(monthsAhead));
+        return rows;
+    }
+
+    // Items that have rows for the month or approved bookings in it. An item approved for the first time after
+    // this point is not rebuilt, its rows come from the approval itself and the next run checks them.
+    private List<Long> findItemIds(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        Set<Long> itemIds = new TreeSet<>(itemMonthlyStatsRepository.findItemIdsByMonthStart(month.atDay(1)));
+
+        itemIds.addAll(bookingRepository.findItemIdsByStatus(
+                BookingStatus.APPROVED, bookingDurationBound.earliestStart(from), from, to));
+        return new ArrayList<>(itemIds);
+    }
+
+    private int reconcileItems(YearMonth month, List<Long> itemIds) {
+        LocalDate monthStart = month.atDay(1);
+        LocalDateTime from = monthStart.atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        Map<Long, ItemMonthlyStats> statsByItem = new HashMap<>();
+        Set<ItemMonthlyRenter.Key> renters = new HashSet<>();
+
+        itemRepository.findAllByIdInForUpdate(itemIds);
+        itemMonthlyRenterRepository.deleteAllByMonthStartAndItemIdIn(monthStart, itemIds);
+        itemMonthlyStatsRepository.deleteAllByMonthStartAndItemIdIn(monthStart, itemIds);
+
+        try (Stream<RentalPeriodDto> periods = bookingRepository.streamPeriodsByStatusAndItemIdIn(
+                BookingStatus.APPROVED, itemIds, bookingDurationBound.earliestStart(from), from, to)) {
+            Iterator<RentalPeriodDto> iterator = periods.iterator();
+
+            while (iterator.hasNext()) {
+                RentalPeriodDto period = iterator.next();
+                ItemMonthlyStats stats = statsByItem.computeIfAbsent(period.getItemId(), itemId ->
+                        ItemMonthlyStats.builder().id(new ItemMonthKey(itemId, monthStart)).build());
+
+                stats.setBookedMinutes(stats.getBookedMinutes()
+                        + ItemStatsMapper.toMinutesByMonth(period.getStart(), period.getEnd()).getOrDefault(month, 0L));
+                stats.setBookingsCount(stats.getBookingsCount() + 1);
+
+                if (renters.add(new ItemMonthlyRenter.Key(period.getItemId(), monthStart, period.getBookerId()))) {
+                    stats.setRentersCount(stats.getRentersCount() + 1);
+                }
+            }
+        }
+
+        statsByItem.values().forEach(entityManager::persist);
+        renters.forEach(key -> entityManager.persist(new ItemMonthlyRenter(key)));
+        return statsByItem.size();
+    }
+}
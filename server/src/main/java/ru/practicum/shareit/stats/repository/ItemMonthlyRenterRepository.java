@@ -0,0 +1,18 @@
+package ru.practicum.shareit.stats.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyRenter;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ItemMonthlyRenterRepository extends JpaRepository<ItemMonthlyRenter, ItemMonthlyRenter.Key> {
+
+    @Modifying
+    @Query("delete from ItemMonthlyRenter r " +
+            "where r.id.monthStart = ?1 " +
+            "and r.id.itemId in ?2")
+    int deleteAllByMonthStartAndItemIdIn(LocalDate monthStart, Collection<Long> itemIds);
+}
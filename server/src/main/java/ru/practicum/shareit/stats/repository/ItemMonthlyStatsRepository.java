@@ -0,0 +1,35 @@
+package ru.practicum.shareit.stats.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.stats.model.dto.ItemMonthlyStatsView;
+import ru.practicum.shareit.stats.model.entity.ItemMonthKey;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyStats;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemMonthlyStatsRepository extends JpaRepository<ItemMonthlyStats, ItemMonthKey> {
+
+    @Query("select s.id.itemId as itemId, i.name as itemName, s.id.monthStart as monthStart, " +
+            "s.bookedMinutes as bookedMinutes, s.bookingsCount as bookingsCount, s.rentersCount as rentersCount " +
+            "from ItemMonthlyStats s, Item i " +
+            "where i.id = s.id.itemId " +
+            "and i.owner.id = ?1 " +
+            "and s.id.monthStart between ?2 and ?3 " +
+            "order by i.id, s.id.monthStart")
+    List<ItemMonthlyStatsView> findAllByOwnerId(Long ownerId, LocalDate fromMonth, LocalDate toMonth);
+
+    @Query("select s.id.itemId " +
+            "from ItemMonthlyStats s " +
+            "where s.id.monthStart = ?1")
+    List<Long> findItemIdsByMonthStart(LocalDate monthStart);
+
+    @Modifying
+    @Query("delete from ItemMonthlyStats s " +
+            "where s.id.monthStart = ?1 " +
+            "and s.id.itemId in ?2")
+    int deleteAllByMonthStartAndItemIdIn(LocalDate monthStart, Collection<Long> itemIds);
+}
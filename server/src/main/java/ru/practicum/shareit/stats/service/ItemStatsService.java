@@ -0,0 +1,14 @@
+package ru.practicum.shareit.stats.service;
+
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.stats.model.dto.ItemStatsDto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface ItemStatsService {
+
+    List<ItemStatsDto> getByOwnerId(Long userId, YearMonth from, YearMonth to);
+
+    void recordApproved(Booking booking);
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.stats.mapper.ItemStatsMapper;
+import ru.practicum.shareit.stats.model.dto.ItemStatsDto;
+import ru.practicum.shareit.stats.model.entity.ItemMonthKey;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyRenter;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyStats;
+import ru.practicum.shareit.stats.repository.ItemMonthlyRenterRepository;
+import ru.practicum.shareit.stats.repository.ItemMonthlyStatsRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemStatsServiceImpl implements ItemStatsService {
+    public static final int DEFAULT_MONTHS = 12;
+
+    private final ItemMonthlyStatsRepository itemMonthlyStatsRepository;
+    private final ItemMonthlyRenterRepository itemMonthlyRenterRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ItemStatsDto> getByOwnerId(Long userId, YearMonth from, YearMonth to) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException(String.format("User with ID: %d not found.", userId));
+        }
+
+        YearMonth toMonth = to != null ? to : YearMonth.now();
+        YearMonth fromMonth = from != null ? from : toMonth.minusMonths(DEFAULT_MONTHS - 1);
+
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("The first month must not be after the last one.");
+        }
+
+        return ItemStatsMapper.toItemStatsDto(itemMonthlyStatsRepository.findAllByOwnerId(
+                userId, fromMonth.atDay(1), toMonth.atDay(1)));
+    }
+
+    // Runs in the approving transaction, which holds the item row lock, so updates of one item never interleave
+    // with each other or with ItemStatsReconciler
+    @Override
+    @Transactional
+    public void recordApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookerId = booking.getBooker().getId();
+
+        for (Map.Entry<YearMonth, Long> minutes
+                : ItemStatsMapper.toMinutesByMonth(booking.getStart(), booking.getEnd()).entrySet()) {
+            LocalDate monthStart = minutes.getKey().atDay(1);
+            ItemMonthKey key = new ItemMonthKey(itemId, monthStart);
+            Optional<ItemMonthlyStats> found = itemMonthlyStatsRepository.findById(key);
+            ItemMonthlyStats stats = found.orElseGet(() -> ItemMonthlyStats.builder().id(key).build());
+
+            stats.setBookedMinutes(stats.getBookedMinutes() + minutes.getValue());
+            stats.setBookingsCount(stats.getBookingsCount() + 1);
+
+            ItemMonthlyRenter.Key renterKey = new ItemMonthlyRenter.Key(itemId, monthStart, bookerId);
+
+            if (!itemMonthlyRenterRepository.existsById(renterKey)) {
+                entityManager.persist(new ItemMonthlyRenter(renterKey));
+                stats.setRentersCount(stats.getRentersCount() + 1);
+            }
+
+            // Rows have assigned ids, persist avoids the extra select that save would run for a new one
+            if (found.isEmpty()) {
+                entityManager.persist(stats);
+            }
+        }
+    }
+}
@@ -2,9 +2,17 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.model.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -28,10 +36,29 @@ public class UserController {
         return userService.update(userId, userDto);
     }
 
-    @GetMapping
-    public List<UserDto> getAll() {
+    // The whole table is streamed only when no paging or ID parameter is given, so afterId on its own
+    // still gets a bounded page
+    @GetMapping(params = {"!ids", "!afterId", "!size"})
+    public void getAll(HttpServletResponse response) throws IOException {
         log.info("GET request to get all users.");
-        return userService.getAll();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        userService.streamAll(new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @GetMapping
+    public List<UserDto> getPage(
+            @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET request to get {} users after ID: {}.", size, afterId);
+        return userService.getAll(afterId, size);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResponseDto<UserDto> getByIds(@RequestParam List<Long> ids) {
+        log.info("GET request to get users with IDs: {}.", ids);
+        return userService.getByIds(ids);
     }
 
     @GetMapping("{userId}")
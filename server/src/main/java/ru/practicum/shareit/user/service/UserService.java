@@ -1,6 +1,10 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.model.dto.UserDto;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
+
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public interface UserService {
@@ -9,9 +13,13 @@ public interface UserService {
 
     UserDto update(Long id, UserDto userDto);
 
-    List<UserDto> getAll();
+    List<UserDto> getAll(Long afterId, Integer size);
+
+    long streamAll(Writer writer) throws IOException;
 
     UserDto getById(Long id);
 
+    MultiGetResponseDto<UserDto> getByIds(List<Long> ids);
+
     void deleteById(Long id);
 }
\ No newline at end of file
@@ -1,22 +1,37 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final int DETACH_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
@@ -42,17 +57,51 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAll() {
-        List<User> users = userRepository.findAll();
+    public List<UserDto> getAll(Long afterId, Integer size) {
+        List<User> users = userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
         return UserMapper.toUserDto(users);
     }
 
+    // Writes all users as one JSON array while they are read from the cursor, only one batch is held in memory
+    @Override
+    public long streamAll(Writer writer) throws IOException {
+        long count = 0;
+        writer.write('[');
+
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+
+            while (iterator.hasNext()) {
+                if (count > 0) {
+                    writer.write(',');
+                }
+                writer.write(objectMapper.writeValueAsString(UserMapper.toUserDto(iterator.next())));
+
+                if (++count % DETACH_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.write(']');
+        writer.flush();
+        log.info("Streamed {} users.", count);
+        return count;
+    }
+
     @Override
     public UserDto getById(Long id) {
         User user = getUserById(id);
         return UserMapper.toUserDto(user);
     }
 
+    @Override
+    public MultiGetResponseDto<UserDto> getByIds(List<Long> ids) {
+        return MultiGetResponseDto.of(ids, UserMapper.toUserDto(userRepository.findAllById(ids)).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity())));
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.util.collections;
+
+import java.util.Arrays;
+
+// Open addressing set of primitive longs with linear probing. Keeps ids unboxed, so a set of a few ids
+// takes tens of bytes instead of a HashSet<Long> with an entry object and a boxed Long per id.
+// Not thread-safe and does not support removal.
+public class LongHashSet {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private long[] slots;
+    private int size;
+
+    public LongHashSet() {
+        slots = newSlots(DEFAULT_CAPACITY);
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE can't be stored in the set.");
+        }
+
+        int mask = slots.length - 1;
+
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+            if (slots[i] == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public boolean add(long value) {
+        if (contains(value)) {
+            return false;
+        }
+
+        // Keeps the load factor at or below 1/2 so probe sequences stay short
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+
+        insert(slots, value);
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] rehashed = newSlots(capacity);
+
+        for (long value : slots) {
+            if (value != EMPTY) {
+                insert(rehashed, value);
+            }
+        }
+
+        slots = rehashed;
+    }
+
+    private static void insert(long[] slots, long value) {
+        int mask = slots.length - 1;
+        int i = index(value, mask);
+
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+
+        slots[i] = value;
+    }
+
+    private static int index(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long[] newSlots(int capacity) {
+        long[] slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
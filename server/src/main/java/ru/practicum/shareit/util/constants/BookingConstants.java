@@ -0,0 +1,11 @@
+package ru.practicum.shareit.util.constants;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Duration;
+
+@UtilityClass
+public class BookingConstants {
+    // Lowest start date bound of the booking queries, see BookingDurationBound. Longer bookings widen it.
+    public static final Duration MIN_DURATION_BOUND = Duration.ofDays(90);
+}
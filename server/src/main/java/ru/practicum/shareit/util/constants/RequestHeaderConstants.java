@@ -5,4 +5,6 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class RequestHeaderConstants {
     public static final String OWNER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
 }
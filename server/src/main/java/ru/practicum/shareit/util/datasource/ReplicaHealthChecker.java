@@ -0,0 +1,59 @@
+package ru.practicum.shareit.util.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+@Slf4j
+public class ReplicaHealthChecker {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReplicaProperties properties;
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routingDataSource, ReplicaProperties properties) {
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.health-check-interval:PT5S}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            boolean healthy = isHealthy(replica.getKey(), replica.getValue());
+
+            if (routingDataSource.setHealthy(replica.getKey(), healthy)) {
+                if (healthy) {
+                    log.info("Replica {} is healthy, read-only transactions are routed to it.", replica.getKey());
+                } else {
+                    log.warn("Replica {} is unavailable or lagging, read-only transactions fall back to other replicas or the primary.",
+                            replica.getKey());
+                }
+            }
+        }
+    }
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid((int) properties.getValidationTimeout().toSeconds())) {
+                return false;
+            }
+
+            return properties.getReplicaLagQuery() == null || properties.getReplicaLagQuery().isBlank()
+                    || lagSeconds(connection) * 1000 <= properties.getMaxReplicaLag().toMillis();
+        } catch (SQLException e) {
+            log.debug("Health check of replica {} failed. Error details: {}.", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getReplicaLagQuery())) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+}
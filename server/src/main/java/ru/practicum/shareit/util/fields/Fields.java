@@ -0,0 +1,44 @@
+package ru.practicum.shareit.util.fields;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Parses the 'fields' request parameter. A null selection means that every field is returned.
+@UtilityClass
+public class Fields {
+    public static final String PARAMETER = "fields";
+
+    public Set<String> parse(String fields, Class<?> dtoClass) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> known = Arrays.stream(dtoClass.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+        Set<String> selected = new LinkedHashSet<>();
+
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException(String.format("Unknown field: %s", name));
+            }
+
+            selected.add(name);
+        }
+
+        return selected;
+    }
+
+    public boolean includes(Set<String> selected, String field) {
+        return selected == null || selected.contains(field);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.util.fields;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Drops the fields that were not selected from the responses of handlers that accept a 'fields' parameter.
+// The services use the same selection to skip loading what is dropped here.
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class FieldsResponseAdvice implements ResponseBodyAdvice<Object> {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getMethod() != null && Arrays.stream(returnType.getMethod().getParameters())
+                .map(parameter -> parameter.getAnnotation(RequestParam.class))
+                .anyMatch(requestParam -> requestParam != null
+                        && (Fields.PARAMETER.equals(requestParam.value()) || Fields.PARAMETER.equals(requestParam.name())));
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(Fields.PARAMETER);
+
+        if (fields == null || fields.isBlank()) {
+            return body;
+        }
+
+        List<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .collect(Collectors.toList());
+        JsonNode tree = objectMapper.valueToTree(body);
+
+        if (tree.isObject()) {
+            ((ObjectNode) tree).retain(selected);
+        } else {
+            tree.forEach(node -> {
+                if (node.isObject()) {
+                    ((ObjectNode) node).retain(selected);
+                }
+            });
+        }
+
+        return tree;
+    }
+}
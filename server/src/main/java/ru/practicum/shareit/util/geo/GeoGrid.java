@@ -0,0 +1,94 @@
+package ru.practicum.shareit.util.geo;
+
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits the globe into cells of CELL_DEGREES x CELL_DEGREES. Items store their cell in an indexed column,
+// so a radius search reads only the cells covering the circle. The query then narrows them down to the bounding
+// box, checks exact distances and orders by them.
+@UtilityClass
+public class GeoGrid {
+    public static final double CELL_DEGREES = 0.1;
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    public long cell(double latitude, double longitude) {
+        return (long) row(latitude) * COLUMNS + column(longitude);
+    }
+
+    public List<Long> cellsWithin(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double longitudeDelta = longitudeDelta(latitudeDelta, minLatitude, maxLatitude);
+
+        int fromColumn = (int) Math.floor((longitude - longitudeDelta + 180) / CELL_DEGREES);
+        int toColumn = (int) Math.floor((longitude + longitudeDelta + 180) / CELL_DEGREES);
+
+        if (toColumn - fromColumn + 1 >= COLUMNS) {
+            fromColumn = 0;
+            toColumn = COLUMNS - 1;
+        }
+
+        List<Long> cells = new ArrayList<>();
+
+        for (int row = row(minLatitude); row <= row(maxLatitude); row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                cells.add((long) row * COLUMNS + Math.floorMod(column, COLUMNS));
+            }
+        }
+
+        return cells;
+    }
+
+    // Across the antimeridian the box would wrap around, so it spans every longitude there and the cells alone
+    // bound the search
+    public Box boxAround(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double longitudeDelta = longitudeDelta(latitudeDelta, minLatitude, maxLatitude);
+
+        if (longitude - longitudeDelta < -180 || longitude + longitudeDelta > 180) {
+            return new Box(minLatitude, maxLatitude, -180, 180);
+        }
+
+        return new Box(minLatitude, maxLatitude, longitude - longitudeDelta, longitude + longitudeDelta);
+    }
+
+    public double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDelta = Math.toRadians(latitude2 - latitude1);
+        double longitudeDelta = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private double longitudeDelta(double latitudeDelta, double minLatitude, double maxLatitude) {
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double cos = Math.cos(Math.toRadians(widestLatitude));
+        return cos > 0 ? latitudeDelta / cos : 360;
+    }
+
+    private int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    @Value
+    public static class Box {
+        double minLatitude;
+        double maxLatitude;
+        double minLongitude;
+        double maxLongitude;
+    }
+}
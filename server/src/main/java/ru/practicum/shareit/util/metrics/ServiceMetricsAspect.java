@@ -0,0 +1,101 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+
+import java.util.Optional;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    public static final String SERVICE_TIMER = "shareit.service.invocations";
+    public static final String REPOSITORY_TIMER = "shareit.repository.invocations";
+    private static final String STATE_PARAMETER = "state";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* ru.practicum.shareit.booking.service.BookingService.*(..)) || " +
+            "execution(* ru.practicum.shareit.item.service.ItemService.*(..)) || " +
+            "execution(* ru.practicum.shareit.request.service.ItemRequestService.*(..)) || " +
+            "execution(* ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return proceed(joinPoint, Timer.builder(SERVICE_TIMER)
+                .description("Time spent in service methods")
+                .tag("service", signature.getDeclaringType().getSimpleName())
+                .tag("method", signature.getName())
+                .tag("state", getState(signature, joinPoint.getArgs())));
+    }
+
+    // Spring Data times every repository method by name, but all booking states now go through the same
+    // filter methods, so the state and role are tagged here to keep the per-state breakdown
+    @Around("execution(* ru.practicum.shareit.booking.repository.BookingFilterRepositoryImpl.*(..))")
+    public Object timeBookingFilter(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Optional<BookingFilter> filter = getFilter(joinPoint.getArgs());
+        return proceed(joinPoint, Timer.builder(REPOSITORY_TIMER)
+                .description("Time spent in booking filter queries")
+                .tag("repository", "BookingFilterRepository")
+                .tag("method", signature.getName())
+                .tag("state", filter.map(BookingFilter::getState)
+                        .map(Enum::name)
+                        .orElse(NONE))
+                .tag("role", filter.map(BookingFilter::getRole)
+                        .map(Enum::name)
+                        .orElse(NONE)));
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, Timer.Builder timer) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Optional<BookingFilter> getFilter(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingFilter) {
+                return Optional.of((BookingFilter) arg);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private String getState(MethodSignature signature, Object[] args) {
+        String[] parameterNames = signature.getParameterNames();
+
+        if (parameterNames == null) {
+            return NONE;
+        }
+
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (STATE_PARAMETER.equals(parameterNames[i]) && args[i] instanceof String) {
+                return BookingState.from((String) args[i])
+                        .map(Enum::name)
+                        .orElse("UNKNOWN");
+            }
+        }
+
+        return NONE;
+    }
+}
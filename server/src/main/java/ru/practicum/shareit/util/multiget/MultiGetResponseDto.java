@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util.multiget;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResponseDto<T> {
+    private List<T> found;
+    private List<Long> missingIds;
+
+    // Keeps the order of the requested ids, repeated ids are returned once.
+    public static <T> MultiGetResponseDto<T> of(Collection<Long> ids, Map<Long, T> foundById) {
+        List<T> found = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+            T value = foundById.get(id);
+
+            if (value != null) {
+                found.add(value);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new MultiGetResponseDto<>(found, missingIds);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.util.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+public class SqlStatementCounter implements QueryExecutionListener {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats stop() {
+        SqlStatementStats stats = CURRENT.get();
+
+        if (stats == null) {
+            throw new IllegalStateException("SQL statement counting has not been started.");
+        }
+
+        if (stats.getParent() != null) {
+            stats.getParent().add(stats);
+            CURRENT.set(stats.getParent());
+        } else {
+            CURRENT.remove();
+        }
+
+        return stats;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = CURRENT.get();
+
+        if (stats == null || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        stats.record(queryInfoList.get(0).getQuery(), execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_SUMMARY = "shareit.sql.statements";
+    public static final String TIME_TIMER = "shareit.sql.time";
+    private static final int LOGGED_STATEMENTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.start();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, SqlStatementCounter.stop());
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        String uri = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), "UNKNOWN");
+
+        DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder(TIME_TIMER)
+                .description("Time spent executing SQL per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        if (stats.getCount() > statementBudget) {
+            log.warn("{} {} executed {} SQL statements in {} ms, budget is {}. Most frequent: {}",
+                    request.getMethod(), request.getRequestURI(), stats.getCount(), stats.getElapsedMillis(),
+                    statementBudget, stats.getMostFrequent(LOGGED_STATEMENTS));
+        }
+    }
+}
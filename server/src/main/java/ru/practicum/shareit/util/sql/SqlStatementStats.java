@@ -0,0 +1,57 @@
+package ru.practicum.shareit.util.sql;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Getter
+public class SqlStatementStats {
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private final SqlStatementStats parent;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int count;
+    private long elapsedMillis;
+
+    SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    void record(String sql, long elapsedMillis) {
+        this.count++;
+        this.elapsedMillis += elapsedMillis;
+
+        if (statements.containsKey(sql) || statements.size() < MAX_DISTINCT_STATEMENTS) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void add(SqlStatementStats other) {
+        this.count += other.count;
+        this.elapsedMillis += other.elapsedMillis;
+        other.statements.forEach((sql, times) -> {
+            if (statements.containsKey(sql) || statements.size() < MAX_DISTINCT_STATEMENTS) {
+                statements.merge(sql, times, Integer::sum);
+            }
+        });
+    }
+
+    public int countOf(String sqlPrefix) {
+        return statements.entrySet().stream()
+                .filter(entry -> entry.getKey().regionMatches(true, 0, sqlPrefix, 0, sqlPrefix.length()))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    public List<String> getMostFrequent(int limit) {
+        return statements.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> String.format("%dx %s", entry.getValue(), entry.getKey()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("execution(* ru.practicum.shareit.booking.service.BookingService.*(..)) || " +
+            "execution(* ru.practicum.shareit.item.service.ItemService.*(..)) || " +
+            "execution(* ru.practicum.shareit.request.service.ItemRequestService.*(..)) || " +
+            "execution(* ru.practicum.shareit.user.service.UserService.*(..)) || " +
+            "execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Span.current().getSpanContext().isValid()) {
+            return joinPoint.proceed();
+        }
+
+        String namespace = getNamespace(joinPoint);
+        String function = joinPoint.getSignature().getName();
+        Span span = tracer.spanBuilder(namespace + "." + function)
+                .setAttribute("code.namespace", namespace)
+                .setAttribute("code.function", function)
+                .startSpan();
+
+        try (Scope ignored = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static String getNamespace(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+
+        if (target instanceof Repository) {
+            for (Class<?> repositoryInterface : AopProxyUtils.proxiedUserInterfaces(target)) {
+                if (Repository.class.isAssignableFrom(repositoryInterface)) {
+                    return repositoryInterface.getSimpleName();
+                }
+            }
+        }
+
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
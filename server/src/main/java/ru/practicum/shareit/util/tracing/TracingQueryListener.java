@@ -0,0 +1,56 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TracingQueryListener implements QueryExecutionListener {
+    private static final int MAX_STATEMENT_LENGTH = 1000;
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!Span.current().getSpanContext().isValid() || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        String sql = queryInfoList.get(0).getQuery();
+        CURRENT.set(tracer.spanBuilder("SQL " + sql.split(" ", 2)[0].toUpperCase())
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.statement", sql.length() > MAX_STATEMENT_LENGTH
+                        ? sql.substring(0, MAX_STATEMENT_LENGTH) : sql)
+                .setAttribute("db.batch_size", (long) execInfo.getBatchSize())
+                .startSpan());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = CURRENT.get();
+
+        if (span == null) {
+            return;
+        }
+
+        CURRENT.remove();
+
+        if (!execInfo.isSuccess()) {
+            if (execInfo.getThrowable() != null) {
+                span.recordException(execInfo.getThrowable());
+            }
+
+            span.setStatus(StatusCode.ERROR);
+        }
+
+        span.end();
+    }
+}
@@ -0,0 +1,23 @@
+-- Дополнение к schema.sql для PostgreSQL: таблица бронирований секционируется по месяцам даты начала.
+-- Секции на прошлые и будущие месяцы создаёт BookingPartitionMaintainer.
+DROP TABLE IF EXISTS bookings CASCADE;
+
+-- Таблица бронирований
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT,
+    booker_id BIGINT,
+    status VARCHAR(64),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id, start_date),
+    CONSTRAINT fk_items_bookings FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT fk_user_bookings FOREIGN KEY (booker_id) REFERENCES users(id)
+) PARTITION BY RANGE (start_date);
+
+-- Секция для бронирований вне созданных месячных секций
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id_start_date ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_date ON bookings (item_id, start_date DESC);
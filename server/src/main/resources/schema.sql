@@ -1,8 +1,14 @@
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS bookings_archive CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS idempotency_keys CASCADE;
+DROP TABLE IF EXISTS outbox_deliveries CASCADE;
+DROP TABLE IF EXISTS outbox_events CASCADE;
+DROP TABLE IF EXISTS item_monthly_stats CASCADE;
+DROP TABLE IF EXISTS item_monthly_renters CASCADE;
 
 -- Таблица пользователей
 CREATE TABLE IF NOT EXISTS users (
@@ -21,10 +27,16 @@ CREATE TABLE IF NOT EXISTS items (
     available BOOLEAN,
     owner_id BIGINT,
     request_id BIGINT,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    grid_cell BIGINT,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_users_items FOREIGN KEY (owner_id) REFERENCES users(id)
 );
 
+-- Ячейка сетки 0.1° x 0.1° для поиска вещей рядом (см. GeoGrid)
+CREATE INDEX IF NOT EXISTS idx_items_grid_cell ON items (grid_cell);
+
 -- Таблица бронирований
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -33,11 +45,31 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id BIGINT,
     booker_id BIGINT,
     status VARCHAR(64),
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_bookings PRIMARY KEY (id),
     CONSTRAINT fk_items_bookings FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_user_bookings FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_date ON bookings (item_id, start_date);
+
+-- Архив завершённых бронирований, перенесённых из bookings
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT,
+    booker_id BIGINT,
+    status VARCHAR(64),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_items_bookings_archive FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT fk_user_bookings_archive FOREIGN KEY (booker_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_id_start_date ON bookings_archive (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_id_start_date ON bookings_archive (item_id, start_date DESC);
+
 -- Таблица запросов
 CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -58,4 +90,61 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_items_comments FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_users_comments FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+-- Таблица ответов на идемпотентные запросы
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    request_key VARCHAR(1024) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    state VARCHAR(16) NOT NULL,
+    status INTEGER,
+    content_type VARCHAR(255),
+    body TEXT,
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (request_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- Таблица исходящих событий (transactional outbox)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    last_error VARCHAR(1024),
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE,
+    parked BOOLEAN DEFAULT FALSE NOT NULL,
+    claimed_until TIMESTAMP WITHOUT TIME ZONE,
+    claim_token VARCHAR(36),
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+-- Слушатели, уже обработавшие событие
+CREATE TABLE IF NOT EXISTS outbox_deliveries (
+    event_id BIGINT NOT NULL,
+    listener VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_outbox_deliveries PRIMARY KEY (event_id, listener),
+    CONSTRAINT fk_outbox_deliveries_events FOREIGN KEY (event_id) REFERENCES outbox_events(id) ON DELETE CASCADE
+);
+
+-- Помесячная статистика вещей: обновляется при подтверждении бронирования и пересчитывается фоновой задачей
+CREATE TABLE IF NOT EXISTS item_monthly_stats (
+    item_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    booked_minutes BIGINT NOT NULL,
+    bookings_count INTEGER NOT NULL,
+    renters_count INTEGER NOT NULL,
+    CONSTRAINT pk_item_monthly_stats PRIMARY KEY (item_id, month_start)
+);
+
+-- Арендаторы вещи по месяцам, чтобы считать каждого арендатора в месяце один раз
+CREATE TABLE IF NOT EXISTS item_monthly_renters (
+    item_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    booker_id BIGINT NOT NULL,
+    CONSTRAINT pk_item_monthly_renters PRIMARY KEY (item_id, month_start, booker_id)
+);
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.booking.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.dto.CommentDto;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("BookingArchiver tests")
+class BookingArchiverTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private BookingDurationBound bookingDurationBound;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private BookingArchiver archiver;
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new BookingArchiver(bookingRepository, bookingArchiveRepository, bookingDurationBound,
+                transactionTemplate, 12, 2);
+        owner = userRepository.save(User.builder().name("Owner").email("archive-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("archive-booker@mail.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Tent")
+                .description("Four person tent")
+                .available(true)
+                .owner(owner)
+                .build());
+        now = LocalDateTime.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingArchiveRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("'archive' should move old bookings in batches and keep recent ones")
+    void archive_MovesOldBookings() {
+        // given
+        addBookings(now.minusMonths(20), 3);
+        addBookings(now.minusDays(10), 2);
+
+        // when
+        int archived = archiver.archive(now);
+
+        // then
+        assertThat(archived, equalTo(3));
+        assertThat(bookingRepository.count(), equalTo(2L));
+        assertThat(bookingArchiveRepository.count(), equalTo(3L));
+        assertThat(archiver.archive(now), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("PAST bookings should continue into the archive in start order")
+    void getPastBookings_ContinuesIntoArchive() throws Exception {
+        // given
+        List<Long> archivedIds = addBookings(now.minusMonths(20), 3);
+        List<Long> recentIds = addBookings(now.minusDays(10), 2);
+        archiver.archive(now);
+
+        // when
+        mvc.perform(get("/bookings")
+                        .param("state", "PAST")
+                        .param("from", "0")
+                        .param("size", "4")
+                        .header(OWNER_ID_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].id").value(recentIds.get(1)))
+                .andExpect(jsonPath("$[1].id").value(recentIds.get(0)))
+                .andExpect(jsonPath("$[2].id").value(archivedIds.get(2)))
+                .andExpect(jsonPath("$[3].id").value(archivedIds.get(1)));
+
+        // then
+        mvc.perform(get("/bookings")
+                        .param("state", "PAST")
+                        .param("from", "4")
+                        .param("size", "4")
+                        .header(OWNER_ID_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(archivedIds.get(0)));
+    }
+
+    @Test
+    @DisplayName("ALL bookings should continue into the archive")
+    void getAllBookings_ContinuesIntoArchive() throws Exception {
+        // given
+        List<Long> archivedIds = addBookings(now.minusMonths(20), 2);
+        Long futureId = addBookings(now.plusDays(10), 1).get(0);
+        archiver.archive(now);
+
+        // when
+        mvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header(OWNER_ID_HEADER, booker.getId()))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(futureId))
+                .andExpect(jsonPath("$[1].id").value(archivedIds.get(1)))
+                .andExpect(jsonPath("$[2].id").value(archivedIds.get(0)));
+    }
+
+    @Test
+    @DisplayName("REJECTED bookings should include archived rejected bookings only")
+    void getRejectedBookings_ContinuesIntoArchive() throws Exception {
+        // given
+        Long rejectedId = addBookings(now.minusMonths(20), 1, BookingStatus.REJECTED).get(0);
+        addBookings(now.minusMonths(19), 1);
+        archiver.archive(now);
+
+        // when
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "REJECTED")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(rejectedId))
+                .andExpect(jsonPath("$[0].status").value(BookingStatus.REJECTED.name()));
+    }
+
+    @Test
+    @DisplayName("archived bookings should still be found by ID and allow comments")
+    void archivedBooking_FoundAndAllowsComment() throws Exception {
+        // given
+        Long bookingId = addBookings(now.minusMonths(20), 1).get(0);
+        archiver.archive(now);
+        CommentDto commentDto = CommentDto.builder().text("Still great").build();
+
+        // when
+        mvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(OWNER_ID_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(bookingId));
+
+        // then
+        mvc.perform(post("/items/{itemId}/comment", item.getId())
+                        .header(OWNER_ID_HEADER, booker.getId())
+                        .content(objectMapper.writeValueAsString(commentDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastBooking.id").value(bookingId));
+    }
+
+    @Test
+    @DisplayName("Exports should include archived bookings after the bookings left in the table")
+    void exportBookings_IncludesArchive() throws Exception {
+        // given
+        List<Long> archivedIds = addBookings(now.minusMonths(20), 2);
+        List<Long> recentIds = addBookings(now.minusDays(10), 1);
+        archiver.archive(now);
+
+        // when
+        String bookerExport = mvc.perform(get("/export/bookings")
+                        .param("format", "csv")
+                        .header(OWNER_ID_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String ownerExport = mvc.perform(get("/export/bookings/owner")
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertThat(bookingArchiveRepository.count(), equalTo(2L));
+        String[] lines = bookerExport.split("\n");
+        assertThat(lines.length, equalTo(4));
+        assertThat(lines[1], startsWith(recentIds.get(0) + ","));
+        assertThat(lines[2], startsWith(archivedIds.get(1) + ","));
+        assertThat(lines[3], startsWith(archivedIds.get(0) + ","));
+        assertThat(lines[3], endsWith(",APPROVED," + item.getId() + ",Tent," + booker.getId() + ",Booker"));
+        assertThat(ownerExport.split("\n").length, equalTo(3));
+    }
+
+    private List<Long> addBookings(LocalDateTime start, int count) {
+        return addBookings(start, count, BookingStatus.APPROVED);
+    }
+
+    private List<Long> addBookings(LocalDateTime start, int count, BookingStatus status) {
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ids.add(bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(12))
+                    .item(item)
+                    .booker(booker)
+                    .status(status)
+                    .build()).getId());
+        }
+
+        return ids;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.entity.Booking;
@@ -108,7 +109,7 @@ public class BookingControllerTest {
         BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
         List<BookingResponseDto> bookings = List.of(bookingResponseDto);
 
-        when(bookingService.getByBookerId(anyLong(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getByBookerId(anyLong(), anyString(), any(), any(), any(), anyInt(), anyInt(), any()))
                 .thenReturn(bookings);
 
         // when
@@ -135,7 +136,7 @@ public class BookingControllerTest {
         BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
         List<BookingResponseDto> bookings = List.of(bookingResponseDto);
 
-        when(bookingService.getByOwnerId(anyLong(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getByOwnerId(anyLong(), anyString(), any(), any(), any(), anyInt(), anyInt(), any()))
                 .thenReturn(bookings);
 
         // when
@@ -151,6 +152,37 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(bookingResponseDto.getStatus().toString())));
     }
 
+    @Test
+    @DisplayName("'getCountsByOwnerId' should return counts of every state")
+    public void getCountsByOwnerId_Success() throws Exception {
+        // given
+        User user = createUser1();
+        BookingCountsDto counts = BookingCountsDto.builder()
+                .all(6)
+                .current(1)
+                .past(3)
+                .future(2)
+                .waiting(2)
+                .rejected(1)
+                .build();
+
+        when(bookingService.getCountsByOwnerId(anyLong()))
+                .thenReturn(counts);
+
+        // when
+        mvc.perform(get("/bookings/owner/counts")
+                        .header(OWNER_ID_HEADER, user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.current", is(1)))
+                .andExpect(jsonPath("$.past", is(3)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.waiting", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
     private User createUser1() {
         return User.builder()
                 .id(1L)
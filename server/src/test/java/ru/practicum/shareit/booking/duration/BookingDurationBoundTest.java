@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.constants.BookingConstants;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@DataJpaTest
+@DisplayName("BookingDurationBound tests")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingDurationBoundTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("Owner").email("bound-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("bound-booker@mail.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Boat")
+                .description("Rowing boat")
+                .available(true)
+                .owner(owner)
+                .build());
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("'refresh' should keep the minimal bound while bookings are shorter")
+    void refresh_ShortBookings() {
+        // given
+        addBooking(now, now.plusDays(3));
+        BookingDurationBound bound = new BookingDurationBound(jdbcTemplate);
+
+        // when
+        bound.refresh();
+
+        // then
+        assertThat(bound.get(), equalTo(BookingConstants.MIN_DURATION_BOUND));
+        assertThat(bound.earliestStart(now), equalTo(now.minus(BookingConstants.MIN_DURATION_BOUND)));
+    }
+
+    @Test
+    @DisplayName("'refresh' should raise the bound to the longest booking created since the last check")
+    void refresh_LongBookingCreatedElsewhere() {
+        // given
+        BookingDurationBound bound = new BookingDurationBound(jdbcTemplate);
+        bound.refresh();
+        addBooking(now, now.plusDays(200));
+
+        // when
+        bound.refresh();
+
+        // then
+        assertThat(bound.get(), equalTo(Duration.ofDays(200)));
+    }
+
+    @Test
+    @DisplayName("'record' should raise the bound but never lower it")
+    void record_OnlyRaises() {
+        // given
+        BookingDurationBound bound = new BookingDurationBound(jdbcTemplate);
+
+        // when
+        bound.record(now, now.plusDays(120));
+        bound.record(now, now.plusDays(1));
+
+        // then
+        assertThat(bound.get(), equalTo(Duration.ofDays(120)));
+    }
+
+    private void addBooking(LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
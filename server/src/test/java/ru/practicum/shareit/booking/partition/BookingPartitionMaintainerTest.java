@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BookingPartitionMaintainer tests")
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionMaintainerTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("'createPartitions' should create monthly partitions around the current month")
+    void createPartitions_Success() {
+        // given
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionTemplate, 1, 2);
+
+        // when
+        int created = maintainer.createPartitions(YearMonth.of(2024, 12));
+
+        // then
+        assertThat(created, equalTo(4));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS bookings_2024_11 PARTITION OF bookings " +
+                "FOR VALUES FROM ('2024-11-01') TO ('2024-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS bookings_2024_12 PARTITION OF bookings " +
+                "FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS bookings_2025_01 PARTITION OF bookings " +
+                "FOR VALUES FROM ('2025-01-01') TO ('2025-02-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS bookings_2025_02 PARTITION OF bookings " +
+                "FOR VALUES FROM ('2025-02-01') TO ('2025-03-01')");
+        verify(jdbcTemplate, times(1)).queryForList("SELECT DISTINCT to_char(start_date, 'YYYY-MM') " +
+                "FROM bookings_default WHERE start_date >= '2024-11-01' AND start_date < '2025-03-01'", String.class);
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("'createPartitions' should continue when a partition can't be created")
+    void createPartitions_FailureIsSkipped() {
+        // given
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionTemplate, 0, 1);
+        doThrow(new DataIntegrityViolationException("default partition contains rows"))
+                .doNothing()
+                .when(jdbcTemplate).execute(anyString());
+
+        // when
+        int created = maintainer.createPartitions(YearMonth.of(2024, 1));
+
+        // then
+        assertThat(created, equalTo(1));
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("'createPartitions' should move far-future bookings out of the default partition")
+    void createPartitions_MovesRowsFromDefault() {
+        // given
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionTemplate, 0, 0);
+        // A booking for August 2025 was created while the window ended earlier, so it sits in bookings_default
+        when(jdbcTemplate.queryForList("SELECT DISTINCT to_char(start_date, 'YYYY-MM') FROM bookings_default " +
+                "WHERE start_date >= '2025-08-01' AND start_date < '2025-09-01'", String.class))
+                .thenReturn(List.of("2025-08"));
+        when(jdbcTemplate.update(anyString()))
+                .thenReturn(1);
+
+        // when
+        int created = maintainer.createPartitions(YearMonth.of(2025, 8));
+
+        // then
+        assertThat(created, equalTo(1));
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE bookings DETACH PARTITION bookings_default");
+        inOrder.verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS bookings_2025_08 PARTITION OF bookings " +
+                "FOR VALUES FROM ('2025-08-01') TO ('2025-09-01')");
+        inOrder.verify(jdbcTemplate).update("INSERT INTO bookings_2025_08 SELECT * FROM bookings_default " +
+                "WHERE start_date >= '2025-08-01' AND start_date < '2025-09-01'");
+        inOrder.verify(jdbcTemplate).update("DELETE FROM bookings_default " +
+                "WHERE start_date >= '2025-08-01' AND start_date < '2025-09-01'");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT");
+        inOrder.verify(transactionManager).commit(any());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.rental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@DisplayName("CompletedRentalIndex tests")
+class CompletedRentalIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should find only the item ids added for the user")
+    void contains_AddedRental() {
+        // given
+        CompletedRentalIndex index = new CompletedRentalIndex(10, 10);
+
+        // when
+        for (long itemId = 1; itemId <= 20; itemId++) {
+            index.add(1L, itemId);
+        }
+
+        // then
+        assertThat(index.contains(1L, 20L, NOW), equalTo(true));
+        assertThat(index.contains(1L, 21L, NOW), equalTo(false));
+        assertThat(index.contains(2L, 20L, NOW), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("should move an approved rental into the index once it has ended")
+    void contains_ApprovedRentalEnded() {
+        // given
+        CompletedRentalIndex index = new CompletedRentalIndex(10, 10);
+
+        // when
+        index.onApproved(1L, 5L, NOW.plusDays(1));
+
+        // then
+        assertThat(index.contains(1L, 5L, NOW), equalTo(false));
+        assertThat(index.contains(1L, 5L, NOW.plusDays(2)), equalTo(true));
+        assertThat(index.pendingSize(), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("should record an approval only after its transaction commits")
+    void onApproved_AfterCommit() {
+        // given
+        CompletedRentalIndex index = new CompletedRentalIndex(10, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        index.onApproved(1L, 5L, NOW.minusDays(1));
+        int pendingBeforeCommit = index.pendingSize();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertThat(pendingBeforeCommit, equalTo(0));
+        assertThat(index.contains(1L, 5L, NOW), equalTo(true));
+    }
+
+    @Test
+    @DisplayName("should drop approvals when the pending queue is full")
+    void onApproved_QueueFull() {
+        // given
+        CompletedRentalIndex index = new CompletedRentalIndex(10, 1);
+
+        // when
+        index.onApproved(1L, 5L, NOW.plusDays(1));
+        index.onApproved(1L, 6L, NOW.plusDays(1));
+
+        // then
+        assertThat(index.pendingSize(), equalTo(1));
+        assertThat(index.contains(1L, 5L, NOW.plusDays(2)), equalTo(true));
+        assertThat(index.contains(1L, 6L, NOW.plusDays(2)), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used user when the index is full")
+    void add_EvictsLeastRecentlyUsedUser() {
+        // given
+        CompletedRentalIndex index = new CompletedRentalIndex(2, 10);
+        index.add(1L, 5L);
+        index.add(2L, 5L);
+        index.contains(1L, 5L, NOW);
+
+        // when
+        index.add(3L, 5L);
+
+        // then
+        assertThat(index.contains(1L, 5L, NOW), equalTo(true));
+        assertThat(index.contains(2L, 5L, NOW), equalTo(false));
+        assertThat(index.contains(3L, 5L, NOW), equalTo(true));
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.util.constants.BookingConstants;
+import ru.practicum.shareit.util.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@DataJpaTest
+@DisplayName("BookingRepository tests")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Test
+    @DisplayName("'countBy...PerState' should count live and archived bookings of every state in one query")
+    public void countPerState_Success() {
+        // given
+        User owner = User.builder()
+                .name("User 1")
+                .email("user1Email@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .name("User 2")
+                .email("user2Email@mail.ru")
+                .build();
+
+        em.persist(owner);
+        em.persist(booker);
+
+        Item item = Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        em.persist(item);
+
+        // The owner rents one of the booker's items, that booking is archived and nothing else is left
+        Item ladder = Item.builder()
+                .name("Ladder")
+                .description("Folding ladder")
+                .owner(booker)
+                .available(true)
+                .build();
+
+        em.persist(ladder);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking archived = booking(item, booker, now.minusYears(2), now.minusYears(2).plusDays(1), BookingStatus.APPROVED);
+        Booking archivedRejected = booking(item, booker, now.minusYears(2).plusDays(2), now.minusYears(2).plusDays(3),
+                BookingStatus.REJECTED);
+        Booking archivedOnly = booking(ladder, owner, now.minusYears(2), now.minusYears(2).plusDays(1),
+                BookingStatus.APPROVED);
+        em.persist(archived);
+        em.persist(archivedRejected);
+        em.persist(archivedOnly);
+        em.persist(booking(item, booker, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED));
+        em.persist(booking(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.REJECTED));
+        em.persist(booking(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING));
+        em.persist(booking(item, booker, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING));
+        em.flush();
+        List<Long> archivedIds = List.of(archived.getId(), archivedRejected.getId(), archivedOnly.getId());
+        bookingArchiveRepository.copyFromBookings(archivedIds);
+        bookingRepository.deleteAllById(archivedIds);
+        em.flush();
+        LocalDateTime earliestStart = now.minus(BookingConstants.MIN_DURATION_BOUND);
+
+        // when
+        BookingCountsDto byBooker = BookingMapper.toBookingCountsDto(
+                bookingRepository.countByBookerIdPerState(booker.getId(), earliestStart, now));
+        BookingCountsDto byOwner = BookingMapper.toBookingCountsDto(
+                bookingRepository.countByItemOwnerIdPerState(owner.getId(), earliestStart, now));
+        BookingCountsDto byArchivedBooker = BookingMapper.toBookingCountsDto(
+                bookingRepository.countByBookerIdPerState(owner.getId(), earliestStart, now));
+        BookingCountsDto byArchivedOwner = BookingMapper.toBookingCountsDto(
+                bookingRepository.countByItemOwnerIdPerState(booker.getId(), earliestStart, now));
+
+        // then
+        for (BookingCountsDto counts : List.of(byBooker, byOwner)) {
+            assertThat(counts.getAll(), equalTo(7L));
+            assertThat(counts.getCurrent(), equalTo(1L));
+            assertThat(counts.getPast(), equalTo(4L));
+            assertThat(counts.getFuture(), equalTo(2L));
+            assertThat(counts.getWaiting(), equalTo(2L));
+            assertThat(counts.getRejected(), equalTo(2L));
+        }
+
+        for (BookingCountsDto counts : List.of(byArchivedBooker, byArchivedOwner)) {
+            assertThat(counts.getAll(), equalTo(1L));
+            assertThat(counts.getCurrent(), equalTo(0L));
+            assertThat(counts.getPast(), equalTo(1L));
+            assertThat(counts.getFuture(), equalTo(0L));
+            assertThat(counts.getWaiting(), equalTo(0L));
+            assertThat(counts.getRejected(), equalTo(0L));
+        }
+    }
+
+    @Test
+    @DisplayName("'findAllByFilter' should combine role, state, item and period in one query")
+    public void findAllByFilter_Success() {
+        // given
+        User owner = User.builder()
+                .name("User 1")
+                .email("user1Email@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .name("User 2")
+                .email("user2Email@mail.ru")
+                .build();
+
+        em.persist(owner);
+        em.persist(booker);
+
+        Item drill = Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        Item saw = Item.builder()
+                .name("Saw")
+                .description("Circular saw")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        em.persist(drill);
+        em.persist(saw);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking pastDrill = booking(drill, booker, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking futureDrill = booking(drill, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking laterDrill = booking(drill, booker, now.plusDays(20), now.plusDays(21), BookingStatus.APPROVED);
+        Booking futureSaw = booking(saw, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        em.persist(pastDrill);
+        em.persist(futureDrill);
+        em.persist(laterDrill);
+        em.persist(futureSaw);
+        em.flush();
+
+        BookingFilter ownerFuture = BookingFilter.builder()
+                .role(BookingRole.OWNER)
+                .userId(owner.getId())
+                .state(BookingState.FUTURE)
+                .now(now)
+                .itemId(drill.getId())
+                .build();
+        BookingFilter bookerInPeriod = BookingFilter.builder()
+                .role(BookingRole.BOOKER)
+                .userId(booker.getId())
+                .state(BookingState.ALL)
+                .now(now)
+                .rangeStart(now)
+                .rangeEnd(now.plusDays(5))
+                .withItem(false)
+                .withBooker(false)
+                .build();
+
+        // when
+        List<BookingResponseDto> ownerFutureBookings = bookingRepository.findAllByFilter(ownerFuture,
+                OffsetPageRequest.of(0, 10));
+        List<BookingResponseDto> bookerPeriodBookings = bookingRepository.findAllByFilter(bookerInPeriod,
+                OffsetPageRequest.of(0, 10));
+        long ownerFutureCount = bookingRepository.countByFilter(ownerFuture);
+
+        // then
+        assertThat(ownerFutureBookings.stream().map(BookingResponseDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(laterDrill.getId(), futureDrill.getId())));
+        assertThat(ownerFutureBookings.get(1).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(ownerFutureBookings.get(1).getItem().getName(), equalTo("Drill"));
+        assertThat(ownerFutureBookings.get(1).getBooker().getName(), equalTo("User 2"));
+        assertThat(ownerFutureCount, equalTo(2L));
+        assertThat(bookerPeriodBookings.stream().map(BookingResponseDto::getId).sorted().collect(Collectors.toList()),
+                equalTo(List.of(futureDrill.getId(), futureSaw.getId())));
+        assertThat(bookerPeriodBookings.get(0).getItem().getId(), notNullValue());
+        assertThat(bookerPeriodBookings.get(0).getItem().getName(), nullValue());
+        assertThat(bookerPeriodBookings.get(0).getBooker().getId(), equalTo(booker.getId()));
+        assertThat(bookerPeriodBookings.get(0).getBooker().getName(), nullValue());
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@DisplayName("BookingService concurrency tests")
+class BookingServiceConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ExecutorService executor;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        owner = userRepository.save(User.builder().name("Owner").email("concurrency-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("concurrency-booker@mail.com").build());
+        item = itemRepository.save(Item.builder().name("Drill").description("Drill").available(true).owner(owner).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        bookingRepository.deleteAll(bookingRepository.findAllByItemIdInAndStatusOrderByStartAsc(
+                List.of(item.getId()), BookingStatus.APPROVED));
+        bookingRepository.deleteAll(bookingRepository.findAllByItemIdInAndStatusOrderByStartAsc(
+                List.of(item.getId()), BookingStatus.WAITING));
+        itemRepository.delete(item);
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    @DisplayName("concurrent approvals of overlapping bookings should approve exactly one of them")
+    void approveOverlappingBookings_OnlyOneApproved() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(createBooking(start.plusHours(i), start.plusHours(i + THREADS)).getId());
+        }
+
+        // when
+        List<Throwable> failures = approveConcurrently(i -> bookingIds.get((int) i));
+
+        // then
+        assertThat(failures.size(), equalTo(THREADS - 1));
+        failures.forEach(failure -> assertInstanceOf(ConflictException.class, failure));
+        assertThat(bookingRepository.findAllByItemIdInAndStatusOrderByStartAsc(
+                List.of(item.getId()), BookingStatus.APPROVED).size(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("concurrent approvals of the same booking should succeed exactly once")
+    void approveSameBooking_OnlyOnceApproved() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = createBooking(start, start.plusDays(1)).getId();
+
+        // when
+        List<Throwable> failures = approveConcurrently(i -> bookingId);
+
+        // then
+        assertThat(failures.size(), equalTo(THREADS - 1));
+        assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+    }
+
+    private List<Throwable> approveConcurrently(LongFunction<Long> bookingIdByThread) throws InterruptedException {
+        CountDownLatch startLine = new CountDownLatch(1);
+        List<Callable<Object>> approvals = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long bookingId = bookingIdByThread.apply(i);
+            approvals.add(() -> {
+                startLine.await();
+                return bookingService.updateStatus(owner.getId(), bookingId, true);
+            });
+        }
+
+        List<Future<Object>> results = new ArrayList<>();
+        approvals.forEach(approval -> results.add(executor.submit(approval)));
+        startLine.countDown();
+
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Object> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
@@ -3,24 +3,38 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.dto.BookingDto;
 import ru.practicum.shareit.booking.model.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.rental.CompletedRentalIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.PermissionDeniedException;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.entity.ItemRequest;
+import ru.practicum.shareit.stats.service.ItemStatsService;
 import ru.practicum.shareit.user.model.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.constants.BookingConstants;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -45,6 +59,21 @@ public class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CompletedRentalIndex completedRentalIndex;
+
+    @Mock
+    private ItemStatsService itemStatsService;
+
+    @Spy
+    private BookingDurationBound bookingDurationBound = new BookingDurationBound(null);
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -175,6 +204,32 @@ public class BookingServiceImplTest {
         verify(itemRepository, times(1)).findById(item.getId());
     }
 
+    @Test
+    @DisplayName("'create' should accept a booking longer than the duration bound and widen the bound")
+    public void createBooking_LongerThanBound() {
+        // given
+        User booker = createUser1();
+        User user = createUser2();
+        ItemRequest itemRequest = createItemRequest(user);
+        Item item = createItem(user, itemRequest);
+        Booking booking = createBooking1(booker, item);
+        booking.setEnd(booking.getStart().plus(BookingConstants.MIN_DURATION_BOUND).plusDays(30));
+        BookingDto bookingDto = createBookingDto(booking);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+
+        // when
+        bookingService.create(booker.getId(), bookingDto);
+
+        // then
+        assertThat(bookingDurationBound.get(), equalTo(Duration.between(booking.getStart(), booking.getEnd())));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
     @Test
     @DisplayName("'update' should update booking status to 'APPROVED")
     public void updateBookingStatusToApprove_Success() {
@@ -185,10 +240,12 @@ public class BookingServiceImplTest {
         Booking booking = createBooking1(user, item);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
 
         // when
         BookingResponseDto actualBooking = bookingService.updateStatus(user.getId(), booking.getId(), true);
@@ -197,7 +254,9 @@ public class BookingServiceImplTest {
         assertNotNull(actualBooking);
         assertThat(actualBooking.getStatus(), equalTo(BookingStatus.APPROVED));
         verify(userRepository, times(1)).findById(user.getId());
-        verify(itemRepository, times(1)).findById(item.getId());
+        verify(itemRepository, times(1)).findByIdForUpdate(item.getId());
+        verify(completedRentalIndex).onApproved(booking.getBooker().getId(), item.getId(), booking.getEnd());
+        verify(itemStatsService).recordApproved(booking);
     }
 
     @Test
@@ -214,6 +273,8 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
 
         // when
         BookingResponseDto actualBooking = bookingService.updateStatus(user.getId(), booking.getId(), false);
@@ -223,6 +284,7 @@ public class BookingServiceImplTest {
         assertThat(actualBooking.getStatus(), equalTo(BookingStatus.REJECTED));
         verify(userRepository, times(1)).findById(user.getId());
         verify(itemRepository, times(1)).findById(item.getId());
+        verifyNoInteractions(completedRentalIndex);
     }
 
     @Test
@@ -280,7 +342,7 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.of(user));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(itemRepository.findById(id))
+        when(itemRepository.findByIdForUpdate(id))
                 .thenReturn(Optional.empty());
 
         // when
@@ -289,9 +351,8 @@ public class BookingServiceImplTest {
 
         // then
         assertEquals(String.format("Item with ID: %d not found.", id), exception.getMessage());
-        verify(itemRepository, times(1)).findById(user.getId());
         verify(bookingRepository, times(1)).findById(booking.getId());
-        verify(itemRepository, times(1)).findById(id);
+        verify(itemRepository, times(1)).findByIdForUpdate(id);
     }
 
     @Test
@@ -307,7 +368,7 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.of(notOwner));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         // when
@@ -329,7 +390,7 @@ public class BookingServiceImplTest {
         booking.setStatus(BookingStatus.APPROVED);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
@@ -344,6 +405,61 @@ public class BookingServiceImplTest {
                 booking.getStatus()), exception.getMessage());
     }
 
+    @Test
+    @DisplayName("'update' should throw exception when approved booking overlaps another approved booking")
+    public void updateBookingStatus_OverlapsApprovedBooking() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest(user);
+        Item item = createItem(user, itemRequest);
+        Booking booking = createBooking1(user, item);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItemIdAndIdNotAndStatusAndStartAfterAndStartBeforeAndEndAfter(
+                item.getId(), booking.getId(), BookingStatus.APPROVED,
+                booking.getStart().minus(BookingConstants.MIN_DURATION_BOUND), booking.getEnd(), booking.getStart()))
+                .thenReturn(true);
+
+        // when
+        ConflictException exception = assertThrows(ConflictException.class, () ->
+                bookingService.updateStatus(user.getId(), booking.getId(), true));
+
+        // then
+        assertEquals(String.format("Booking with ID: %d overlaps with an already approved booking " +
+                "of item with ID: %d.", booking.getId(), item.getId()), exception.getMessage());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("'update' should throw exception when booking was processed concurrently")
+    public void updateBookingStatus_ConcurrentlyProcessed() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest(user);
+        Item item = createItem(user, itemRequest);
+        Booking booking = createBooking1(user, item);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        // when
+        ConflictException exception = assertThrows(ConflictException.class, () ->
+                bookingService.updateStatus(user.getId(), booking.getId(), false));
+
+        // then
+        assertEquals(String.format("Booking with ID: %d has already been approved or rejected.",
+                booking.getId()), exception.getMessage());
+    }
+
     @Test
     @DisplayName("'getById' should return booking by booking ID successfully")
     public void getBookingByBookingId_Success() {
@@ -414,6 +530,53 @@ public class BookingServiceImplTest {
         assertEquals("Only the owner or the booker of the item can view the booking.", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("'getByIds' should return bookings in request order and report missing IDs")
+    public void getBookingsByIds_Success() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest(user);
+        Item item = createItem(user, itemRequest);
+        Booking booking = createBooking1(user, item);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(5L, booking.getId(), 5L)))
+                .thenReturn(List.of(booking));
+
+        // when
+        MultiGetResponseDto<BookingResponseDto> actual =
+                bookingService.getByIds(user.getId(), List.of(5L, booking.getId(), 5L));
+
+        // then
+        assertThat(actual.getFound().size(), equalTo(1));
+        assertThat(actual.getFound().get(0).getId(), equalTo(booking.getId()));
+        assertThat(actual.getMissingIds(), equalTo(List.of(5L)));
+        verify(bookingArchiveRepository, times(1)).findAllWithItemAndBookerByIdIn(List.of(5L, 5L));
+    }
+
+    @Test
+    @DisplayName("'getByIds' should throw exception when user isn't owner or booker of one of the bookings")
+    public void getBookingsByIds_UserNotOwnerOrBooker() {
+        // given
+        User user = createUser1();
+        User notOwner = createUser2();
+        ItemRequest itemRequest = createItemRequest(user);
+        Item item = createItem(user, itemRequest);
+        Booking booking = createBooking1(user, item);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(notOwner));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(booking.getId())))
+                .thenReturn(List.of(booking));
+
+        // when
+        PermissionDeniedException exception = assertThrows(PermissionDeniedException.class, () ->
+                bookingService.getByIds(notOwner.getId(), List.of(booking.getId())));
+
+        // then
+        assertEquals("Only the owner or the booker of the item can view the booking.", exception.getMessage());
+        verify(bookingArchiveRepository, never()).findAllWithItemAndBookerByIdIn(any());
+    }
+
     @Test
     @DisplayName("'getByBookerId' should return all 'PAST' bookings by booker ID")
     public void getPastBookingsByBookerId_Success() {
@@ -427,11 +590,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(pastBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(pastBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "PAST", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "PAST", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -456,12 +619,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(futureBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(futureBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "FUTURE", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "FUTURE", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -485,12 +647,11 @@ public class BookingServiceImplTest {
         List<Booking> currentBookings = List.of(booking);
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(currentBookings);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(currentBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "CURRENT", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "CURRENT", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -514,11 +675,11 @@ public class BookingServiceImplTest {
         List<Booking> waitingBookings = List.of(booking);
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(waitingBookings);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(waitingBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "WAITING", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "WAITING", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -542,11 +703,11 @@ public class BookingServiceImplTest {
         List<Booking> rejectedBookings = List.of(booking);
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(rejectedBookings);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(rejectedBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "REJECTED", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "REJECTED", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -570,11 +731,11 @@ public class BookingServiceImplTest {
         List<Booking> allBookings = List.of(booking);
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(allBookings);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(allBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "ALL", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByBookerId(booker.getId(), "ALL", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -597,7 +758,7 @@ public class BookingServiceImplTest {
 
         // when
         NoSuchElementException exception = assertThrows(NoSuchElementException.class, () ->
-                bookingService.getByBookerId(id, "ALL", 0, 10));
+                bookingService.getByBookerId(id, "ALL", null, null, null, 0, 10, null));
 
         // then
         assertEquals(String.format("User with ID: %d not found.", id), exception.getMessage());
@@ -614,13 +775,76 @@ public class BookingServiceImplTest {
 
         // when
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
-                bookingService.getByBookerId(booker.getId(), state, 0, 10));
+                bookingService.getByBookerId(booker.getId(), state, null, null, null, 0, 10, null));
 
         // then
         assertEquals(String.format("Unknown state: %s", state), exception.getMessage());
         verify(userRepository, times(1)).findById(booker.getId());
     }
 
+    @Test
+    @DisplayName("'getByOwnerId' should pass the item and period to the booking filter")
+    public void getBookingsByOwnerId_FilterByItemAndPeriod() {
+        // given
+        User user = createUser1();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        ArgumentCaptor<BookingFilter> filterCaptor = ArgumentCaptor.forClass(BookingFilter.class);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByFilter(filterCaptor.capture(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // when
+        bookingService.getByOwnerId(user.getId(), "future", 5L, start, end, 0, 10, null);
+
+        // then
+        BookingFilter filter = filterCaptor.getValue();
+        assertThat(filter.getRole(), equalTo(BookingRole.OWNER));
+        assertThat(filter.getUserId(), equalTo(user.getId()));
+        assertThat(filter.getState(), equalTo(BookingState.FUTURE));
+        assertThat(filter.getItemId(), equalTo(5L));
+        assertThat(filter.getRangeStart(), equalTo(start));
+        assertThat(filter.getRangeEnd(), equalTo(end));
+        verify(bookingRepository, never()).findAllArchivedByFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("'getByBookerId' should skip the joins of the fields that were not selected")
+    public void getBookingsByBookerId_SelectedFields() {
+        // given
+        User user = createUser1();
+        ArgumentCaptor<BookingFilter> filterCaptor = ArgumentCaptor.forClass(BookingFilter.class);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByFilter(filterCaptor.capture(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // when
+        bookingService.getByBookerId(user.getId(), "ALL", null, null, null, 0, 10, "id, status, item");
+
+        // then
+        assertTrue(filterCaptor.getValue().isWithItem());
+        assertFalse(filterCaptor.getValue().isWithBooker());
+    }
+
+    @Test
+    @DisplayName("'getByOwnerId' should throw exception when only one bound of the period is set")
+    public void getBookingsByOwnerId_HalfOpenPeriod() {
+        // given
+        User user = createUser1();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                bookingService.getByOwnerId(user.getId(), "ALL", null, LocalDateTime.now(), null, 0, 10, null));
+
+        // then
+        assertEquals("Both start and end of the period must be set.", exception.getMessage());
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     @DisplayName("'getByOwnerId' should return all 'PAST' bookings by owner ID")
     public void getPastBookingsByOwnerId_Success() {
@@ -634,11 +858,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(pastBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(pastBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "PAST", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "PAST", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -663,11 +887,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(futureBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(futureBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "FUTURE", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "FUTURE", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -692,12 +916,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(currentBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(currentBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "CURRENT", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "CURRENT", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -722,11 +945,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(waitingBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(waitingBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "WAITING", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "WAITING", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -751,11 +974,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(rejectedBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(rejectedBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "REJECTED", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "REJECTED", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -780,11 +1003,11 @@ public class BookingServiceImplTest {
         List<BookingResponseDto> expectedBookings = BookingMapper.toBookingResponseDto(allBookings);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(allBookings);
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(expectedBookings);
 
         // when
-        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "ALL", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getByOwnerId(user.getId(), "ALL", null, null, null, 0, 10, null);
 
         // then
         assertNotNull(actualBookings);
@@ -806,7 +1029,7 @@ public class BookingServiceImplTest {
 
         // when
         NoSuchElementException exception = assertThrows(NoSuchElementException.class, () ->
-                bookingService.getByOwnerId(id, "ALL", 0, 10));
+                bookingService.getByOwnerId(id, "ALL", null, null, null, 0, 10, null));
 
         // then
         assertEquals(String.format("User with ID: %d not found.", id), exception.getMessage());
@@ -824,7 +1047,7 @@ public class BookingServiceImplTest {
 
         // when
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
-                bookingService.getByOwnerId(owner.getId(), state, 0, 10));
+                bookingService.getByOwnerId(owner.getId(), state, null, null, null, 0, 10, null));
 
         // then
         assertEquals(String.format("Unknown state: %s", state), exception.getMessage());
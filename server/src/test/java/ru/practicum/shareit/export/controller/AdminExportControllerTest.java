@@ -0,0 +1,73 @@
+package ru.practicum.shareit.export.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+
+import java.io.Writer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.ADMIN_TOKEN_HEADER;
+
+@DisplayName("AdminExportController tests")
+@WebMvcTest(controllers = AdminExportController.class, properties = "shareit.export.admin-token=secret")
+class AdminExportControllerTest {
+
+    @MockBean
+    private ExportService exportService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @DisplayName("'exportItems' should stream all items as csv with a valid admin token")
+    void exportItems_Success() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(1);
+            writer.write("id,name\n1,Drill\n2,Saw\n");
+            writer.flush();
+            return null;
+        }).when(exportService).exportItems(eq(ExportFormat.CSV), any(Writer.class));
+
+        // when
+        mvc.perform(get("/admin/export/items")
+                        .header(ADMIN_TOKEN_HEADER, "secret")
+                        .param("format", "csv"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andExpect(content().string("id,name\n1,Drill\n2,Saw\n"));
+    }
+
+    @Test
+    @DisplayName("'exportBookings' should return not found when the admin token is wrong")
+    void exportBookings_WrongToken() throws Exception {
+        // when
+        mvc.perform(get("/admin/export/bookings")
+                        .header(ADMIN_TOKEN_HEADER, "guess"))
+                // then
+                .andExpect(status().isNotFound());
+        verify(exportService, never()).exportBookings(any(ExportFormat.class), any(Writer.class));
+    }
+
+    @Test
+    @DisplayName("'exportBookings' should return not found without an admin token")
+    void exportBookings_NoToken() throws Exception {
+        // when
+        mvc.perform(get("/admin/export/bookings"))
+                // then
+                .andExpect(status().isNotFound());
+        verify(exportService, never()).exportBookings(any(ExportFormat.class), any(Writer.class));
+    }
+}
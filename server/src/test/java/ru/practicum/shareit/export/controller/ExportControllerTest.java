@@ -0,0 +1,85 @@
+package ru.practicum.shareit.export.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.Writer;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@DisplayName("ExportController tests")
+@WebMvcTest(controllers = ExportController.class)
+class ExportControllerTest {
+
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @DisplayName("'exportBookingsByBookerId' should stream bookings as csv successfully")
+    void exportBookingsByBookerId_Success() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(2);
+            writer.write("id,start\n1,2023-01-01T10:00\n");
+            writer.flush();
+            return null;
+        }).when(exportService).exportBookingsByBookerId(eq(1L), eq(ExportFormat.CSV), any(Writer.class));
+
+        // when
+        mvc.perform(get("/export/bookings")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("format", "csv"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andExpect(content().string("id,start\n1,2023-01-01T10:00\n"));
+    }
+
+    @Test
+    @DisplayName("'exportBookingsByOwnerId' should return not found when user not found")
+    void exportBookingsByOwnerId_UserNotFound() throws Exception {
+        // given
+        when(userService.getById(anyLong()))
+                .thenThrow(new NoSuchElementException("User with ID: 1 not found."));
+
+        // when
+        mvc.perform(get("/export/bookings/owner")
+                        .header(OWNER_ID_HEADER, 1L))
+                // then
+                .andExpect(status().isNotFound());
+        verify(exportService, never()).exportBookingsByOwnerId(anyLong(), any(ExportFormat.class), any(Writer.class));
+    }
+
+    @Test
+    @DisplayName("'exportItemsByOwnerId' should return bad request when format is unknown")
+    void exportItemsByOwnerId_UnknownFormat() throws Exception {
+        // when
+        mvc.perform(get("/export/items")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("format", "xml"))
+                // then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("Unknown format: xml")));
+    }
+}
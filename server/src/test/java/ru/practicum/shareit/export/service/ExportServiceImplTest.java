@@ -0,0 +1,171 @@
+package ru.practicum.shareit.export.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Value;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.dto.BookingExportView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.export.enums.ExportFormat;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ExportService tests")
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @Test
+    @DisplayName("'exportBookingsByOwnerId' should write one json line per booking")
+    void exportBookingsByOwnerId_Json() throws Exception {
+        // given
+        User owner = createUser(1L, "Owner");
+        User booker = createUser(2L, "Booker");
+        Item item = createItem(owner);
+        when(bookingRepository.streamAllByItemOwnerId(owner.getId()))
+                .thenReturn(Stream.of(createBooking(1L, item, booker), createBooking(2L, item, booker)));
+        StringWriter writer = new StringWriter();
+
+        // when
+        exportService.exportBookingsByOwnerId(owner.getId(), ExportFormat.JSON, writer);
+
+        // then
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines.length, equalTo(2));
+        assertThat(lines[0], startsWith("{\"id\":1,\"start\":\"2023-01-01T10:00:00\""));
+        assertThat(lines[1], startsWith("{\"id\":2,"));
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    @DisplayName("'exportBookingsByBookerId' should write csv with escaped values and clear persistence context in batches")
+    void exportBookingsByBookerId_Csv() throws Exception {
+        // given
+        User owner = createUser(1L, "Owner");
+        User booker = createUser(2L, "Booker, \"Jr\"");
+        Item item = createItem(owner);
+        when(bookingRepository.streamAllByBookerId(booker.getId()))
+                .thenReturn(IntStream.rangeClosed(1, 1000).mapToObj(id -> createBooking(id, item, booker)));
+        StringWriter writer = new StringWriter();
+
+        // when
+        exportService.exportBookingsByBookerId(booker.getId(), ExportFormat.CSV, writer);
+
+        // then
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines.length, equalTo(1001));
+        assertThat(lines[0], equalTo("id,start,end,status,item_id,item_name,booker_id,booker_name"));
+        assertThat(lines[1], equalTo("1,2023-01-01T10:00,2023-01-02T10:00,APPROVED,1,Drill,2,\"Booker, \"\"Jr\"\"\""));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("'exportItemsByOwnerId' should write csv header and items")
+    void exportItemsByOwnerId_Csv() throws Exception {
+        // given
+        User owner = createUser(1L, "Owner");
+        Item item = createItem(owner);
+        when(itemRepository.streamAllByOwnerId(owner.getId()))
+                .thenReturn(Stream.of(item));
+        StringWriter writer = new StringWriter();
+
+        // when
+        exportService.exportItemsByOwnerId(owner.getId(), ExportFormat.CSV, writer);
+
+        // then
+        assertThat(writer.toString(), equalTo("id,name,description,available,owner_id,request_id\n" +
+                "1,Drill,Cordless drill,true,1,\n"));
+    }
+
+    @Test
+    @DisplayName("'exportBookings' should write bookings of every user")
+    void exportBookings_Json() throws Exception {
+        // given
+        User owner = createUser(1L, "Owner");
+        Item item = createItem(owner);
+        when(bookingRepository.streamAll())
+                .thenReturn(Stream.of(createBooking(1L, item, createUser(2L, "First")),
+                        createBooking(2L, item, createUser(3L, "Second"))));
+        StringWriter writer = new StringWriter();
+
+        // when
+        exportService.exportBookings(ExportFormat.JSON, writer);
+
+        // then
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines.length, equalTo(2));
+        assertThat(lines[1], startsWith("{\"id\":2,"));
+        verify(bookingRepository, never()).streamAllByBookerId(anyLong());
+    }
+
+    private User createUser(Long id, String name) {
+        return User.builder()
+                .id(id)
+                .name(name)
+                .email(id + "@mail.com")
+                .build();
+    }
+
+    private Item createItem(User owner) {
+        return Item.builder()
+                .id(1L)
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    private BookingExportView createBooking(long id, Item item, User booker) {
+        return new ExportRow(id, LocalDateTime.of(2023, 1, 1, 10, 0), LocalDateTime.of(2023, 1, 2, 10, 0),
+                BookingStatus.APPROVED, item.getId(), item.getName(), booker.getId(), booker.getName());
+    }
+
+    @Value
+    private static class ExportRow implements BookingExportView {
+        long id;
+        LocalDateTime startDate;
+        LocalDateTime endDate;
+        BookingStatus status;
+        Long itemId;
+        String itemName;
+        Long bookerId;
+        String bookerName;
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.idempotency.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+import ru.practicum.shareit.idempotency.repository.IdempotentResponseRepository;
+import ru.practicum.shareit.user.model.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.util.serialization.SmileConfig.APPLICATION_SMILE;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("IdempotencyFilter tests")
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    @Test
+    @DisplayName("retried POST with the same key should return the original response without creating a duplicate")
+    void retriedPost_ReturnsOriginalResponse() throws Exception {
+        // given
+        UserDto userDto = UserDto.builder()
+                .name("Idempotent")
+                .email("idempotent@mail.com")
+                .build();
+        String content = objectMapper.writeValueAsString(userDto);
+        long usersBefore = userRepository.count();
+
+        // when
+        MvcResult first = mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(content)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult retry = mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(content)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        // then
+        assertThat(retry.getResponse().getContentAsString(), equalTo(first.getResponse().getContentAsString()));
+        assertThat(userRepository.count(), equalTo(usersBefore + 1));
+        userRepository.deleteById(objectMapper.readValue(first.getResponse().getContentAsString(), UserDto.class).getId());
+    }
+
+    @Test
+    @DisplayName("retried Smile POST should replay the original binary response")
+    void retriedSmilePost_ReturnsOriginalBinaryResponse() throws Exception {
+        // given
+        UserDto userDto = UserDto.builder()
+                .name("Smile")
+                .email("smile@mail.com")
+                .build();
+        byte[] content = smileConverter.getObjectMapper().writeValueAsBytes(userDto);
+
+        // when
+        MvcResult first = mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "retry-smile")
+                        .content(content)
+                        .contentType(APPLICATION_SMILE)
+                        .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn();
+        MvcResult retry = mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "retry-smile")
+                        .content(content)
+                        .contentType(APPLICATION_SMILE)
+                        .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn();
+
+        // then
+        UserDto created = smileConverter.getObjectMapper()
+                .readValue(retry.getResponse().getContentAsByteArray(), UserDto.class);
+        assertThat(retry.getResponse().getContentAsByteArray(), equalTo(first.getResponse().getContentAsByteArray()));
+        assertThat(created.getEmail(), equalTo(userDto.getEmail()));
+        userRepository.deleteById(created.getId());
+    }
+
+    @Test
+    @DisplayName("POST reusing a key with a different payload should be rejected without creating a user")
+    void reusedKeyWithDifferentPayload_UnprocessableEntity() throws Exception {
+        // given
+        String first = objectMapper.writeValueAsString(UserDto.builder()
+                .name("First")
+                .email("first-payload@mail.com")
+                .build());
+        String second = objectMapper.writeValueAsString(UserDto.builder()
+                .name("Second")
+                .email("second-payload@mail.com")
+                .build());
+        MvcResult created = mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "reused")
+                        .content(first)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        long usersBefore = userRepository.count();
+
+        // when
+        mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "reused")
+                        .content(second)
+                        .contentType(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        assertThat(userRepository.count(), equalTo(usersBefore));
+        userRepository.deleteById(objectMapper.readValue(created.getResponse().getContentAsString(), UserDto.class).getId());
+    }
+
+    @Test
+    @DisplayName("POST whose key is reserved by a request still running elsewhere should be rejected")
+    void postWithPendingKey_Conflict() throws Exception {
+        // given
+        String content = objectMapper.writeValueAsString(UserDto.builder()
+                .name("Pending")
+                .email("pending@mail.com")
+                .build());
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update("POST\n".getBytes(StandardCharsets.UTF_8));
+        digest.update(content.getBytes(StandardCharsets.UTF_8));
+        // Reserved by another instance, the in-memory state of this one knows nothing about it
+        idempotentResponseRepository.insert(IdempotentResponse.builder()
+                .requestKey("null:/users:pending")
+                .requestHash(Base64.getEncoder().encodeToString(digest.digest()))
+                .state(IdempotencyState.PENDING)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build());
+        long usersBefore = userRepository.count();
+
+        // when
+        mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "pending")
+                        .content(content)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isConflict());
+        assertThat(userRepository.count(), equalTo(usersBefore));
+        assertThat(idempotentResponseRepository.findById("null:/users:pending").orElseThrow().getState(),
+                equalTo(IdempotencyState.PENDING));
+        idempotentResponseRepository.deleteById("null:/users:pending");
+    }
+
+    @Test
+    @DisplayName("POST with a too long key should be rejected")
+    void postWithTooLongKey_BadRequest() throws Exception {
+        mvc.perform(post("/users")
+                        .header(IDEMPOTENCY_KEY_HEADER, "k".repeat(256))
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@DisplayName("IdempotentResponseRepository tests")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotentResponseRepositoryTest {
+
+    @Autowired
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    @Test
+    @DisplayName("'insert' should reject a second response for the same key and keep the first one")
+    void insert_SecondWriterRejected() {
+        // given
+        idempotentResponseRepository.insert(createResponse("first"));
+
+        // when, then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> idempotentResponseRepository.insert(createResponse("second")));
+        assertThat(idempotentResponseRepository.findById("1:/users:key").orElseThrow().getBody(), equalTo("first"));
+        idempotentResponseRepository.deleteById("1:/users:key");
+    }
+
+    @Test
+    @DisplayName("'updateResponse' should complete a pending reservation only once")
+    void updateResponse_CompletesPendingOnce() {
+        // given
+        idempotentResponseRepository.insert(IdempotentResponse.builder()
+                .requestKey("1:/users:key")
+                .requestHash("hash")
+                .state(IdempotencyState.PENDING)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build());
+
+        // when
+        int first = idempotentResponseRepository.updateResponse("1:/users:key", IdempotencyState.PENDING,
+                IdempotencyState.COMPLETED, 201, null, "first", LocalDateTime.now().plusHours(1));
+        int second = idempotentResponseRepository.updateResponse("1:/users:key", IdempotencyState.PENDING,
+                IdempotencyState.COMPLETED, 201, null, "second", LocalDateTime.now().plusHours(1));
+        int released = idempotentResponseRepository.deleteByRequestKeyAndState("1:/users:key",
+                IdempotencyState.PENDING);
+
+        // then
+        assertThat(first, equalTo(1));
+        assertThat(second, equalTo(0));
+        assertThat(released, equalTo(0));
+        IdempotentResponse stored = idempotentResponseRepository.findById("1:/users:key").orElseThrow();
+        assertThat(stored.getState(), equalTo(IdempotencyState.COMPLETED));
+        assertThat(stored.getBody(), equalTo("first"));
+        idempotentResponseRepository.deleteById("1:/users:key");
+    }
+
+    private IdempotentResponse createResponse(String body) {
+        return IdempotentResponse.builder()
+                .requestKey("1:/users:key")
+                .requestHash("hash")
+                .state(IdempotencyState.COMPLETED)
+                .status(200)
+                .body(body)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.idempotency.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+import ru.practicum.shareit.idempotency.repository.IdempotentResponseRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IdempotencyService tests")
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotentResponseRepository, Duration.ofHours(1),
+                Duration.ofMinutes(1), 2);
+    }
+
+    @Test
+    @DisplayName("'find' should return completed response from memory without querying database")
+    void find_FromMemory() {
+        // given
+        stubUpdateResponse(1);
+        idempotencyService.complete("1:/items:key", "hash", 200, "application/json", "{\"id\":1}");
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.find("1:/items:key");
+
+        // then
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getBody(), equalTo("{\"id\":1}"));
+        assertThat(actual.get().getState(), equalTo(IdempotencyState.COMPLETED));
+        verify(idempotentResponseRepository, never()).findByRequestKeyAndExpiresAtAfter(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("'find' should fall back to database when key was evicted from memory")
+    void find_FromDatabaseAfterEviction() {
+        // given
+        stubUpdateResponse(1);
+        idempotencyService.complete("key-1", "hash", 200, null, "1");
+        idempotencyService.complete("key-2", "hash", 200, null, "2");
+        idempotencyService.complete("key-3", "hash", 200, null, "3");
+        when(idempotentResponseRepository.findByRequestKeyAndExpiresAtAfter(eq("key-1"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(createResponse("key-1", IdempotencyState.COMPLETED, "1")));
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.find("key-1");
+
+        // then
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getBody(), equalTo("1"));
+    }
+
+    @Test
+    @DisplayName("'find' should not return a reservation that is still pending")
+    void find_Pending() {
+        // given
+        when(idempotentResponseRepository.findByRequestKeyAndExpiresAtAfter(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(createResponse("key", IdempotencyState.PENDING, null)));
+
+        // when, then
+        assertFalse(idempotencyService.find("key").isPresent());
+    }
+
+    @Test
+    @DisplayName("'reserve' should insert a pending row and hand the key to the caller")
+    void reserve_Success() {
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.reserve("key", "hash");
+
+        // then
+        assertFalse(actual.isPresent());
+        verify(idempotentResponseRepository, times(1)).insert(argThat(response ->
+                response.getState() == IdempotencyState.PENDING && response.getRequestHash().equals("hash")));
+    }
+
+    @Test
+    @DisplayName("'reserve' should return the pending row when another request holds the key")
+    void reserve_InFlight() {
+        // given
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(idempotentResponseRepository).insert(any(IdempotentResponse.class));
+        when(idempotentResponseRepository.findOnPrimary(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(createResponse("key", IdempotencyState.PENDING, null)));
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.reserve("key", "hash");
+
+        // then
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getState(), equalTo(IdempotencyState.PENDING));
+        verify(idempotentResponseRepository, never()).deleteExpired(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("'reserve' should return the stored response of a completed request")
+    void reserve_Completed() {
+        // given
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(idempotentResponseRepository).insert(any(IdempotentResponse.class));
+        when(idempotentResponseRepository.findOnPrimary(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(createResponse("key", IdempotencyState.COMPLETED, "first")));
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.reserve("key", "hash");
+        Optional<IdempotentResponse> cached = idempotencyService.reserve("key", "hash");
+
+        // then
+        assertThat(actual.get().getBody(), equalTo("first"));
+        assertThat(cached.get().getBody(), equalTo("first"));
+        verify(idempotentResponseRepository, times(1)).insert(any(IdempotentResponse.class));
+    }
+
+    @Test
+    @DisplayName("'reserve' should replace an expired row that has not been cleaned up yet")
+    void reserve_ReplacesExpiredRow() {
+        // given
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doNothing()
+                .when(idempotentResponseRepository).insert(any(IdempotentResponse.class));
+        when(idempotentResponseRepository.findOnPrimary(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.reserve("key", "hash");
+
+        // then
+        assertFalse(actual.isPresent());
+        verify(idempotentResponseRepository, times(1)).deleteExpired(eq("key"), any(LocalDateTime.class));
+        verify(idempotentResponseRepository, times(2)).insert(any(IdempotentResponse.class));
+    }
+
+    @Test
+    @DisplayName("'complete' should not cache a response whose reservation was taken over")
+    void complete_ReservationLost() {
+        // given
+        stubUpdateResponse(0);
+        when(idempotentResponseRepository.findByRequestKeyAndExpiresAtAfter(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        // when
+        idempotencyService.complete("key", "hash", 200, null, "late");
+
+        // then
+        assertFalse(idempotencyService.find("key").isPresent());
+    }
+
+    @Test
+    @DisplayName("'release' should delete only the pending reservation")
+    void release_Success() {
+        // when
+        idempotencyService.release("key");
+
+        // then
+        verify(idempotentResponseRepository, times(1)).deleteByRequestKeyAndState("key", IdempotencyState.PENDING);
+    }
+
+    @Test
+    @DisplayName("'removeExpired' should remove expired keys from memory and database")
+    void removeExpired_Success() {
+        // given
+        IdempotencyServiceImpl expiringService = new IdempotencyServiceImpl(idempotentResponseRepository,
+                Duration.ZERO, Duration.ZERO, 10);
+        stubUpdateResponse(1);
+        expiringService.complete("key", "hash", 200, null, "1");
+        when(idempotentResponseRepository.findByRequestKeyAndExpiresAtAfter(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        // when
+        expiringService.removeExpired();
+
+        // then
+        assertFalse(expiringService.find("key").isPresent());
+        verify(idempotentResponseRepository, times(1)).deleteAllExpired(any(LocalDateTime.class));
+    }
+
+    private void stubUpdateResponse(int updated) {
+        when(idempotentResponseRepository.updateResponse(anyString(), eq(IdempotencyState.PENDING),
+                eq(IdempotencyState.COMPLETED), anyInt(), any(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(updated);
+    }
+
+    private IdempotentResponse createResponse(String requestKey, IdempotencyState state, String body) {
+        return IdempotentResponse.builder()
+                .requestKey(requestKey)
+                .requestHash("hash")
+                .state(state)
+                .status(state == IdempotencyState.COMPLETED ? 201 : null)
+                .body(body)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
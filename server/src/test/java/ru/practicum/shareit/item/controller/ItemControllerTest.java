@@ -10,9 +10,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.dto.CommentDto;
+import ru.practicum.shareit.item.model.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.dto.CommentResponseDto;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.entity.ItemRequest;
@@ -25,6 +27,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -115,7 +118,7 @@ public class ItemControllerTest {
         ItemResponseDto itemResponseDto1 = ItemMapper.toItemResponseDto(item1);
         List<ItemResponseDto> items = List.of(itemResponseDto1);
 
-        when(itemService.getAll(anyLong(), anyInt(), anyInt()))
+        when(itemService.getAll(anyLong(), anyInt(), anyInt(), any()))
                 .thenReturn(items);
 
         // when
@@ -137,6 +140,31 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments", is(itemResponseDto1.getComments())));
     }
 
+    @Test
+    @DisplayName("'getAll' should return only the selected fields")
+    public void getAllItemsByUserId_SelectedFields() throws Exception {
+        // given
+        User user1 = createUser1();
+        ItemRequest itemRequest = createItemRequest1(user1);
+        Item item1 = createItem1(user1, itemRequest);
+        ItemResponseDto itemResponseDto1 = ItemMapper.toItemResponseDto(item1);
+
+        when(itemService.getAll(anyLong(), anyInt(), anyInt(), eq("id,name")))
+                .thenReturn(List.of(itemResponseDto1));
+
+        // when
+        mvc.perform(get("/items")
+                        .header(OWNER_ID_HEADER, user1.getId())
+                        .param("fields", "id,name")
+                        .accept(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemResponseDto1.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(itemResponseDto1.getName())))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].comments").doesNotExist());
+    }
+
     @Test
     @DisplayName("'getById' should return item by id successfully")
     public void getItemById_Success() throws Exception {
@@ -177,7 +205,7 @@ public class ItemControllerTest {
         Item item1 = createItem1(user, itemRequest);
         ItemResponseDto itemResponseDto1 = ItemMapper.toItemResponseDto(item1);
 
-        when(itemService.searchItem(anyLong(), anyString(), anyInt(), anyInt()))
+        when(itemService.searchItem(anyLong(), anyString(), any(), any(), any(), any(), anyInt(), anyInt()))
                 .thenReturn(List.of(itemResponseDto1));
 
         // when
@@ -206,7 +234,7 @@ public class ItemControllerTest {
         // given
         User user = createUser1();
 
-        when(itemService.searchItem(anyLong(), anyString(), anyInt(), anyInt()))
+        when(itemService.searchItem(anyLong(), anyString(), any(), any(), any(), any(), anyInt(), anyInt()))
                 .thenReturn(List.of());
 
         // when
@@ -222,6 +250,30 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$", is(empty())));
     }
 
+    @Test
+    @DisplayName("'search' should pass the point and radius to the service")
+    public void getAllItemsNearPoint_Success() throws Exception {
+        // given
+        User user = createUser1();
+
+        when(itemService.searchItem(anyLong(), anyString(), isNull(), isNull(), eq(List.of(55.75, 37.61)), eq(5.0),
+                anyInt(), anyInt()))
+                .thenReturn(List.of());
+
+        // when
+        mvc.perform(get("/items/search")
+                        .header(OWNER_ID_HEADER, user.getId())
+                        .param("text", "drill")
+                        .param("near", "55.75,37.61")
+                        .param("radius", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(empty())));
+        verify(itemService).searchItem(anyLong(), anyString(), isNull(), isNull(), eq(List.of(55.75, 37.61)), eq(5.0),
+                anyInt(), anyInt());
+    }
+
     @Test
     @DisplayName("'addComment' should create comment successfully")
     public void createComment_Success() throws Exception {
@@ -249,6 +301,38 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(commentResponseDto.getAuthorName())));
     }
 
+    @Test
+    @DisplayName("'getAvailability' should return busy and free slots of the item")
+    public void getAvailability_Success() throws Exception {
+        // given
+        User user = createUser1();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new TimeSlotDto(from, from.plusDays(2))))
+                .free(List.of(new TimeSlotDto(from.plusDays(2), to)))
+                .build();
+
+        when(itemService.getAvailability(anyLong(), anyLong(), eq(from), eq(to)))
+                .thenReturn(availability);
+
+        // when
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header(OWNER_ID_HEADER, user.getId())
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.busy.length()", is(1)))
+                .andExpect(jsonPath("$.free.length()", is(1)))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-03T00:00:00")));
+    }
+
     private User createUser1() {
         return User.builder()
                 .id(1L)
@@ -6,12 +6,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.request.model.entity.ItemRequest;
 import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.util.constants.BookingConstants;
+import ru.practicum.shareit.util.geo.GeoGrid;
 import ru.practicum.shareit.util.pagination.OffsetPageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -143,4 +150,168 @@ public class ItemRepositoryTest {
         assertNotNull(actualItems);
         assertThat(actualItems.size(), equalTo(0));
     }
+
+    @Test
+    @DisplayName("'searchAvailable' should skip items with approved bookings overlapping the period")
+    public void returnAvailableItemsBySearchCriteria_Success() {
+        // given
+        User owner = User.builder()
+                .name("User 1")
+                .email("user1Email@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .name("User 2")
+                .email("user2Email@mail.ru")
+                .build();
+
+        em.persist(owner);
+        em.persist(booker);
+
+        Item bookedDrill = Item.builder()
+                .name("Drill Bosch")
+                .description("Cordless drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        Item freeDrill = Item.builder()
+                .name("Drill Makita")
+                .description("Hammer drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        Item waitingDrill = Item.builder()
+                .name("Drill DeWalt")
+                .description("Impact drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        em.persist(bookedDrill);
+        em.persist(freeDrill);
+        em.persist(waitingDrill);
+
+        LocalDateTime start = LocalDateTime.of(2030, 6, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        em.persist(booking(bookedDrill, booker, start.minusDays(1), start.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(freeDrill, booker, end, end.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(freeDrill, booker, start.minusDays(3), start, BookingStatus.APPROVED));
+        em.persist(booking(waitingDrill, booker, start, end, BookingStatus.WAITING));
+
+        // when
+        List<Item> actualItems = itemRepository.searchAvailable("drill", BookingStatus.APPROVED,
+                start.minus(BookingConstants.MIN_DURATION_BOUND), start, end, OffsetPageRequest.of(0, 10));
+
+        // then
+        assertThat(actualItems.stream().map(Item::getId).sorted().collect(Collectors.toList()),
+                equalTo(List.of(freeDrill.getId(), waitingDrill.getId())));
+    }
+
+    @Test
+    @DisplayName("'searchNear' should return items within the radius ordered by distance and paged")
+    public void returnItemsNear_Success() {
+        // given
+        User owner = User.builder()
+                .name("User 1")
+                .email("user1Email@mail.ru")
+                .build();
+
+        em.persist(owner);
+
+        Item closeDrill = locatedDrill(owner, "Drill Bosch", 55.7600, 37.6200);
+        Item farDrill = locatedDrill(owner, "Drill Metabo", 55.8000, 37.7000);
+        Item outsideDrill = locatedDrill(owner, "Drill Hitachi", 55.9000, 37.6200);
+        Item kazanDrill = locatedDrill(owner, "Drill Makita", 55.7963, 49.1088);
+        Item unlocatedDrill = Item.builder()
+                .name("Drill DeWalt")
+                .description("Impact drill")
+                .owner(owner)
+                .available(true)
+                .build();
+
+        em.persist(farDrill);
+        em.persist(outsideDrill);
+        em.persist(closeDrill);
+        em.persist(kazanDrill);
+        em.persist(unlocatedDrill);
+        GeoGrid.Box box = GeoGrid.boxAround(55.7558, 37.6173, 10);
+        List<Long> cells = GeoGrid.cellsWithin(55.7558, 37.6173, 10);
+
+        // when
+        List<Item> allItems = itemRepository.searchNear("drill", cells, 55.7558, 37.6173, 10,
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude(),
+                OffsetPageRequest.of(0, 10));
+        List<Item> secondPage = itemRepository.searchNear("drill", cells, 55.7558, 37.6173, 10,
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude(),
+                OffsetPageRequest.of(1, 1));
+
+        // then
+        assertThat(allItems.stream().map(Item::getId).collect(Collectors.toList()),
+                equalTo(List.of(closeDrill.getId(), farDrill.getId())));
+        assertThat(secondPage.stream().map(Item::getId).collect(Collectors.toList()),
+                equalTo(List.of(farDrill.getId())));
+    }
+
+    @Test
+    @DisplayName("'searchAvailableNear' should skip items with approved bookings overlapping the period")
+    public void returnAvailableItemsNear_Success() {
+        // given
+        User owner = User.builder()
+                .name("User 1")
+                .email("user1Email@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .name("User 2")
+                .email("user2Email@mail.ru")
+                .build();
+
+        em.persist(owner);
+        em.persist(booker);
+
+        Item bookedDrill = locatedDrill(owner, "Drill Bosch", 55.7600, 37.6200);
+        Item freeDrill = locatedDrill(owner, "Drill Metabo", 55.8000, 37.7000);
+
+        em.persist(bookedDrill);
+        em.persist(freeDrill);
+
+        LocalDateTime start = LocalDateTime.of(2030, 6, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        em.persist(booking(bookedDrill, booker, start.minusDays(1), start.plusDays(1), BookingStatus.APPROVED));
+        em.persist(booking(freeDrill, booker, end, end.plusDays(1), BookingStatus.APPROVED));
+        GeoGrid.Box box = GeoGrid.boxAround(55.7558, 37.6173, 10);
+
+        // when
+        List<Item> actualItems = itemRepository.searchAvailableNear("drill",
+                GeoGrid.cellsWithin(55.7558, 37.6173, 10), 55.7558, 37.6173, 10,
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude(),
+                start.minus(BookingConstants.MIN_DURATION_BOUND), start, end, OffsetPageRequest.of(0, 10));
+
+        // then
+        assertThat(actualItems.stream().map(Item::getId).collect(Collectors.toList()),
+                equalTo(List.of(freeDrill.getId())));
+    }
+
+    private Item locatedDrill(User owner, String name, double latitude, double longitude) {
+        Item item = Item.builder()
+                .name(name)
+                .description("Cordless drill")
+                .owner(owner)
+                .available(true)
+                .build();
+        ItemMapper.setLocation(item, latitude, longitude);
+        return item;
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
 }
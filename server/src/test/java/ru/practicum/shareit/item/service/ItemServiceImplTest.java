@@ -5,11 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.rental.CompletedRentalIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.PermissionDeniedException;
@@ -19,10 +23,13 @@ import ru.practicum.shareit.item.model.entity.Comment;
 import ru.practicum.shareit.item.model.entity.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.util.geo.GeoGrid;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,6 +41,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @DisplayName("ItemService tests")
@@ -49,12 +57,24 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
     @Mock
     private CommentRepository commentRepository;
 
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private CompletedRentalIndex completedRentalIndex = new CompletedRentalIndex(100, 100);
+
+    @Spy
+    private BookingDurationBound bookingDurationBound = new BookingDurationBound(null);
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -339,7 +359,7 @@ class ItemServiceImplTest {
                 .thenReturn(items);
 
         // when
-        List<ItemResponseDto> actualItems = itemService.getAll(user.getId(), 0, 10);
+        List<ItemResponseDto> actualItems = itemService.getAll(user.getId(), 0, 10, null);
 
         // then
         assertNotNull(actualItems);
@@ -354,6 +374,46 @@ class ItemServiceImplTest {
         assertThat(actualItems.get(0).getComments(), equalTo(List.of()));
     }
 
+    @Test
+    @DisplayName("'getAll' should not query bookings and comments that were not selected")
+    void getAllItems_OnlyIdAndName() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest1(user);
+        Item item1 = createItem1(user, itemRequest);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findItemsByOwnerIdOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(item1));
+
+        // when
+        List<ItemResponseDto> actualItems = itemService.getAll(user.getId(), 0, 10, "id,name");
+
+        // then
+        assertThat(actualItems.size(), equalTo(1));
+        assertThat(actualItems.get(0).getName(), equalTo(item1.getName()));
+        verify(bookingRepository, never()).findAllByItemIdInAndStatusOrderByStartAsc(anyList(), any());
+        verify(commentRepository, never()).findAllByItemIn(anyList(), any());
+        verifyNoInteractions(bookingArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("'getAll' should throw exception when a field is unknown")
+    void getAllItems_UnknownField() {
+        // given
+        Long id = 2L;
+        when(userRepository.findById(id))
+                .thenReturn(Optional.of(createUser1()));
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                itemService.getAll(id, 0, 10, "id,owner"));
+
+        // then
+        assertEquals("Unknown field: owner", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     @DisplayName("'getAll' should throw exception when user not found")
     void getAllItem_UserNotFound() {
@@ -364,7 +424,7 @@ class ItemServiceImplTest {
 
         // when
         NoSuchElementException exception = assertThrows(NoSuchElementException.class, () ->
-                itemService.getAll(id, 0, 10));
+                itemService.getAll(id, 0, 10, null));
 
         // then
         assertEquals(String.format("User with ID: %d not found.", id), exception.getMessage());
@@ -407,6 +467,37 @@ class ItemServiceImplTest {
         assertThat(actualItem.getComments(), equalTo(List.of()));
     }
 
+    @Test
+    @DisplayName("'getByIds' should return items in request order with bookings only for own items")
+    void getItemsByIds_Success() {
+        // given
+        User user = createUser1();
+        User user2 = createUser2();
+        ItemRequest itemRequest = createItemRequest1(user);
+        Item ownItem = createItem1(user, itemRequest);
+        Item otherItem = createItem2(user2, itemRequest);
+        Booking lastBooking = createBooking1(user2, ownItem);
+        List<Long> ids = List.of(otherItem.getId(), 3L, ownItem.getId());
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findAllById(ids))
+                .thenReturn(List.of(ownItem, otherItem));
+        when(bookingRepository.findAllByItemIdInAndStatusOrderByStartAsc(List.of(ownItem.getId()), BookingStatus.APPROVED))
+                .thenReturn(List.of(lastBooking));
+
+        // when
+        MultiGetResponseDto<ItemResponseDto> actual = itemService.getByIds(user.getId(), ids);
+
+        // then
+        assertThat(actual.getFound().size(), equalTo(2));
+        assertThat(actual.getFound().get(0).getId(), equalTo(otherItem.getId()));
+        assertThat(actual.getFound().get(0).getLastBooking(), equalTo(null));
+        assertThat(actual.getFound().get(1).getId(), equalTo(ownItem.getId()));
+        assertThat(actual.getFound().get(1).getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(actual.getMissingIds(), equalTo(List.of(3L)));
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
     @Test
     @DisplayName("'getById' should return item without last and next booking when bookings not found")
     void getItemById_BookingsNotFound() {
@@ -517,7 +608,7 @@ class ItemServiceImplTest {
                 .thenReturn(items);
 
         // when
-        List<ItemResponseDto> actualItems = itemService.searchItem(user.getId(), "Item", 0, 10);
+        List<ItemResponseDto> actualItems = itemService.searchItem(user.getId(), "Item", null, null, null, null, 0, 10);
 
         // then
         assertNotNull(actualItems);
@@ -532,6 +623,92 @@ class ItemServiceImplTest {
         assertThat(actualItems.get(0).getComments(), equalTo(expectedItems.get(0).getComments()));
     }
 
+    @Test
+    @DisplayName("'searchItem' should exclude booked items in the database when period is set")
+    void searchItem_WithPeriod() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest1(user);
+        Item item1 = createItem1(user, itemRequest);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.searchAvailable(eq("Item"), eq(BookingStatus.APPROVED), any(), eq(start), eq(end),
+                any(Pageable.class)))
+                .thenReturn(List.of(item1));
+
+        // when
+        List<ItemResponseDto> actualItems = itemService.searchItem(user.getId(), "Item", start, end, null, null, 0, 10);
+
+        // then
+        assertThat(actualItems.size(), equalTo(1));
+        assertThat(actualItems.get(0).getId(), equalTo(item1.getId()));
+        verify(itemRepository, never()).search(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("'searchItem' should search the cells and bounding box around the point")
+    void searchItem_Near() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest1(user);
+        Item close = createItem2(user, itemRequest);
+        ItemMapper.setLocation(close, 55.76, 37.62);
+        Item far = createItem1(user, itemRequest);
+        ItemMapper.setLocation(far, 55.80, 37.70);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.searchNear(eq("Item"), eq(GeoGrid.cellsWithin(55.7558, 37.6173, 10)), eq(55.7558),
+                eq(37.6173), eq(10.0), anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(Pageable.class)))
+                .thenReturn(List.of(close, far));
+
+        // when
+        List<ItemResponseDto> actualItems = itemService.searchItem(user.getId(), "Item", null, null,
+                List.of(55.7558, 37.6173), 10.0, 0, 10);
+
+        // then
+        assertThat(actualItems.size(), equalTo(2));
+        assertThat(actualItems.get(0).getId(), equalTo(close.getId()));
+        assertThat(actualItems.get(1).getId(), equalTo(far.getId()));
+        verify(itemRepository, never()).search(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("'searchItem' should throw exception when radius is missing")
+    void searchItem_NearWithoutRadius() {
+        // given
+        User user = createUser1();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                itemService.searchItem(user.getId(), "Item", null, null, List.of(55.7558, 37.6173), null, 0, 10));
+
+        // then
+        assertEquals("Search near a point needs 'near' as latitude,longitude and a positive 'radius'.",
+                exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("'searchItem' should throw exception when only one bound of the period is set")
+    void searchItem_HalfOpenPeriod() {
+        // given
+        User user = createUser1();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                itemService.searchItem(user.getId(), "Item", LocalDateTime.now(), null, null, null, 0, 10));
+
+        // then
+        assertEquals("Both start and end of the period must be set.", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     @DisplayName("'searchItem' should throw exception when user not found")
     void searchItem_UserNotFound() {
@@ -542,7 +719,7 @@ class ItemServiceImplTest {
 
         // when
         NoSuchElementException exception = assertThrows(NoSuchElementException.class, () ->
-                itemService.searchItem(userId, "Item", 0, 10));
+                itemService.searchItem(userId, "Item", null, null, null, null, 0, 10));
 
         // then
         assertEquals(String.format("User with ID: %d not found.", userId), exception.getMessage());
@@ -579,6 +756,38 @@ class ItemServiceImplTest {
         assertThat(actualComment.getAuthorName(), equalTo(expectedComment.getAuthorName()));
     }
 
+    @Test
+    @DisplayName("'addComment' should check a repeated comment in the completed rentals index")
+    void createComment_CompletedRentalCached() {
+        // given
+        User user = createUser1();
+        ItemRequest itemRequest = createItemRequest1(user);
+        Item item = createItem1(user, itemRequest);
+        CommentDto commentDto = createCommentDto();
+        Comment comment = createComment(commentDto, item, user);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(itemRepository.getReferenceById(item.getId()))
+                .thenReturn(item);
+        when(commentRepository.save(any(Comment.class)))
+                .thenReturn(comment);
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), any(), any(), any()))
+                .thenReturn(true);
+
+        // when
+        itemService.addComment(user.getId(), item.getId(), commentDto);
+        itemService.addComment(user.getId(), item.getId(), commentDto);
+
+        // then
+        verify(bookingRepository, times(1))
+                .existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), any(), any(), any());
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(itemRepository, times(1)).getReferenceById(item.getId());
+        verify(commentRepository, times(2)).save(any(Comment.class));
+    }
+
     @Test
     @DisplayName("'addComment' should throw exception when user not found")
     void createComment_UserNotFound() {
@@ -644,6 +853,83 @@ class ItemServiceImplTest {
         verify(userRepository, times(1)).findById(user.getId());
     }
 
+    @Test
+    @DisplayName("'getAvailability' should merge overlapping bookings and return the gaps as free slots")
+    public void getAvailability_Success() {
+        // given
+        User user = createUser1();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<TimeSlotDto> bookings = List.of(
+                new TimeSlotDto(from.minusDays(1), from.plusDays(1)),
+                new TimeSlotDto(from.plusDays(3), from.plusDays(5)),
+                new TimeSlotDto(from.plusDays(4), from.plusDays(6)),
+                new TimeSlotDto(from.plusDays(6), from.plusDays(7)),
+                new TimeSlotDto(from.plusDays(9), from.plusDays(12)));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        when(bookingRepository.findTimeSlotsByItemId(eq(1L), any(), any(), eq(from), eq(to)))
+                .thenReturn(bookings);
+
+        // when
+        ItemAvailabilityDto availability = itemService.getAvailability(user.getId(), 1L, from, to);
+
+        // then
+        assertThat(availability.getBusy().size(), equalTo(3));
+        assertThat(availability.getBusy().get(0).getStart(), equalTo(from));
+        assertThat(availability.getBusy().get(0).getEnd(), equalTo(from.plusDays(1)));
+        assertThat(availability.getBusy().get(1).getStart(), equalTo(from.plusDays(3)));
+        assertThat(availability.getBusy().get(1).getEnd(), equalTo(from.plusDays(7)));
+        assertThat(availability.getBusy().get(2).getEnd(), equalTo(to));
+        assertThat(availability.getFree().size(), equalTo(2));
+        assertThat(availability.getFree().get(0).getStart(), equalTo(from.plusDays(1)));
+        assertThat(availability.getFree().get(0).getEnd(), equalTo(from.plusDays(3)));
+        assertThat(availability.getFree().get(1).getStart(), equalTo(from.plusDays(7)));
+        assertThat(availability.getFree().get(1).getEnd(), equalTo(from.plusDays(9)));
+    }
+
+    @Test
+    @DisplayName("'getAvailability' should return the whole period as free when there are no bookings")
+    public void getAvailability_NoBookings() {
+        // given
+        User user = createUser1();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.existsById(1L))
+                .thenReturn(true);
+
+        // when
+        ItemAvailabilityDto availability = itemService.getAvailability(user.getId(), 1L, from, to);
+
+        // then
+        assertThat(availability.getBusy().size(), equalTo(0));
+        assertThat(availability.getFree().size(), equalTo(1));
+        assertThat(availability.getFree().get(0).getStart(), equalTo(from));
+        assertThat(availability.getFree().get(0).getEnd(), equalTo(to));
+    }
+
+    @Test
+    @DisplayName("'getAvailability' should throw exception when period is empty")
+    public void getAvailability_InvalidPeriod() {
+        // given
+        User user = createUser1();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                itemService.getAvailability(user.getId(), 1L, from, from));
+
+        // then
+        assertEquals("The start of the period must be before its end.", exception.getMessage());
+        verify(bookingRepository, never()).findTimeSlotsByItemId(any(), any(), any(), any(), any());
+    }
+
     private User createUser1() {
         return User.builder()
                 .id(1L)
@@ -0,0 +1,247 @@
+package ru.practicum.shareit.outbox.poller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+import ru.practicum.shareit.outbox.listener.OutboxEventListener;
+import ru.practicum.shareit.outbox.model.entity.OutboxDelivery;
+import ru.practicum.shareit.outbox.model.entity.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxDeliveryRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OutboxPoller tests")
+@ExtendWith(MockitoExtension.class)
+class OutboxPollerTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final RecordingListener firstListener = new RecordingListener();
+
+    private final FailingListener failingListener = new FailingListener();
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("'poll' should deliver a batch to every listener and delete it")
+    void poll_Success() {
+        // given
+        RecordingListener secondListener = new OtherRecordingListener();
+        OutboxPoller poller = createPoller(List.of(firstListener, secondListener), 3);
+        List<OutboxEvent> events = List.of(createEvent(1L), createEvent(2L));
+        givenClaimed(events);
+
+        // when
+        int published = poller.poll();
+
+        // then
+        assertThat(published, equalTo(2));
+        assertThat(firstListener.received, equalTo(events));
+        assertThat(secondListener.received, equalTo(events));
+        verify(outboxDeliveryRepository, times(1)).markDelivered(List.of(1L, 2L), RecordingListener.class.getName());
+        verify(outboxDeliveryRepository, times(1)).markDelivered(List.of(1L, 2L),
+                OtherRecordingListener.class.getName());
+        verify(outboxEventRepository, times(1)).claim(eq(List.of(1L, 2L)), anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("'poll' should keep delivering to other listeners and record an attempt when a listener fails")
+    void poll_ListenerFails() {
+        // given
+        OutboxPoller poller = createPoller(List.of(failingListener, firstListener), 3);
+        OutboxEvent event = createEvent(1L);
+        givenClaimed(List.of(event));
+
+        // when
+        int published = poller.poll();
+
+        // then
+        assertThat(published, equalTo(0));
+        assertThat(firstListener.received, equalTo(List.of(event)));
+        assertThat(event.getAttempts(), equalTo(1));
+        assertThat(event.getLastError(), containsString(FailingListener.class.getName() + ": index is down"));
+        assertThat(event.getParked(), equalTo(false));
+        assertThat(event.getClaimedUntil(), equalTo(null));
+        verify(outboxDeliveryRepository, times(1)).markDelivered(List.of(1L), RecordingListener.class.getName());
+        verify(outboxDeliveryRepository, never()).markDelivered(anyList(), eq(FailingListener.class.getName()));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(outboxEventRepository, times(1)).saveAll(List.of(event));
+    }
+
+    @Test
+    @DisplayName("'poll' should not redeliver an event to a listener that has already handled it")
+    void poll_SkipsDeliveredListener() {
+        // given
+        OutboxPoller poller = createPoller(List.of(firstListener, failingListener), 3);
+        OutboxEvent event = createEvent(1L);
+        event.setAttempts(1);
+        givenClaimed(List.of(event));
+        when(outboxDeliveryRepository.findAllByIdEventIdIn(Set.of(1L)))
+                .thenReturn(List.of(new OutboxDelivery(new OutboxDelivery.Key(1L, RecordingListener.class.getName()))));
+
+        // when
+        poller.poll();
+
+        // then
+        assertThat(firstListener.received.size(), equalTo(0));
+        assertThat(failingListener.calls, equalTo(1));
+        assertThat(event.getAttempts(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("'poll' should retry a failed batch one by one so that only the bad event is held back")
+    void poll_IsolatesBadEvent() {
+        // given
+        OutboxEvent good = createEvent(1L);
+        OutboxEvent bad = createEvent(2L);
+        OutboxEventListener listener = events -> {
+            if (events.contains(bad)) {
+                throw new IllegalArgumentException("bad payload");
+            }
+        };
+        OutboxPoller poller = createPoller(List.of(listener), 3);
+        givenClaimed(List.of(good, bad));
+
+        // when
+        int published = poller.poll();
+
+        // then
+        assertThat(published, equalTo(1));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+        assertThat(bad.getAttempts(), equalTo(1));
+        assertThat(good.getAttempts(), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("'poll' should back off between attempts and park an event a listener keeps failing on")
+    void poll_ListenerKeepsFailing() {
+        // given
+        OutboxPoller poller = createPoller(List.of(failingListener), 3);
+        OutboxEvent event = createEvent(1L);
+        when(outboxEventRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> event.getParked() ? List.of() : List.of(event.getId()));
+        when(outboxEventRepository.findAllByClaimTokenOrderByIdAsc(anyString()))
+                .thenReturn(List.of(event));
+        List<Duration> backoffs = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime before = LocalDateTime.now();
+            poller.poll();
+            if (!event.getParked()) {
+                backoffs.add(Duration.between(before, event.getNextAttemptAt()));
+            }
+        }
+
+        // then
+        assertThat(event.getParked(), equalTo(true));
+        assertThat(event.getAttempts(), equalTo(3));
+        assertThat(failingListener.calls, equalTo(3));
+        assertThat(backoffs.size(), equalTo(2));
+        assertThat(backoffs.get(1).compareTo(backoffs.get(0)) > 0, equalTo(true));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(outboxDeliveryRepository, never()).markDelivered(anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("'poll' should do nothing when there are no events")
+    void poll_NoEvents() {
+        // given
+        OutboxPoller poller = createPoller(List.of(firstListener), 3);
+        when(outboxEventRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // when
+        int published = poller.poll();
+
+        // then
+        assertThat(published, equalTo(0));
+        assertThat(firstListener.received.size(), equalTo(0));
+        verify(outboxDeliveryRepository, never()).markDelivered(anyList(), anyString());
+    }
+
+    private void givenClaimed(List<OutboxEvent> events) {
+        when(outboxEventRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(events.stream()
+                        .map(OutboxEvent::getId)
+                        .collect(Collectors.toList()));
+        when(outboxEventRepository.findAllByClaimTokenOrderByIdAsc(anyString()))
+                .thenReturn(events);
+    }
+
+    private OutboxPoller createPoller(List<OutboxEventListener> listeners, int maxAttempts) {
+        return new OutboxPoller(outboxEventRepository, outboxDeliveryRepository, listeners, transactionTemplate, 100,
+                maxAttempts, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private OutboxEvent createEvent(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(AggregateType.BOOKING)
+                .aggregateId(id)
+                .eventType(EventType.BOOKING_CREATED)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private static class RecordingListener implements OutboxEventListener {
+        private final List<OutboxEvent> received = new ArrayList<>();
+
+        @Override
+        public void onEvents(List<OutboxEvent> events) {
+            received.addAll(events);
+        }
+    }
+
+    private static class OtherRecordingListener extends RecordingListener {
+    }
+
+    private static class FailingListener implements OutboxEventListener {
+        private int calls;
+
+        @Override
+        public void onEvents(List<OutboxEvent> events) {
+            calls++;
+            throw new IllegalStateException("index is down");
+        }
+    }
+}
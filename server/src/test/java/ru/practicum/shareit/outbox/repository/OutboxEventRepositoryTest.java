@@ -0,0 +1,114 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.EventType;
+import ru.practicum.shareit.outbox.model.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@DataJpaTest
+@DisplayName("OutboxEventRepository tests")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("'findDueIds' should skip parked, backed off and claimed events")
+    void findDueIds_SkipsUnavailable() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent due = outboxEventRepository.save(createEvent());
+        OutboxEvent parked = createEvent();
+        parked.setParked(true);
+        OutboxEvent backedOff = createEvent();
+        backedOff.setNextAttemptAt(now.plusMinutes(1));
+        OutboxEvent claimed = createEvent();
+        claimed.setClaimedUntil(now.plusMinutes(1));
+        outboxEventRepository.saveAll(List.of(parked, backedOff, claimed));
+
+        // when
+        List<Long> actual = outboxEventRepository.findDueIds(now, PageRequest.of(0, 10));
+
+        // then
+        assertThat(actual, equalTo(List.of(due.getId())));
+    }
+
+    @Test
+    @DisplayName("'claim' should lease an event to the first token only")
+    void claim_FirstTokenWins() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = outboxEventRepository.save(createEvent());
+        List<Long> ids = List.of(event.getId());
+
+        // when
+        int first = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(ids, "first", now.plusMinutes(1), now));
+        int second = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(ids, "second", now.plusMinutes(1), now));
+        int afterExpiry = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(ids, "third", now.plusMinutes(3), now.plusMinutes(2)));
+
+        // then
+        assertThat(first, equalTo(1));
+        assertThat(second, equalTo(0));
+        assertThat(afterExpiry, equalTo(1));
+        assertThat(outboxEventRepository.findAllByClaimTokenOrderByIdAsc("second").size(), equalTo(0));
+        assertThat(outboxEventRepository.findAllByClaimTokenOrderByIdAsc("third").get(0).getId(),
+                equalTo(event.getId()));
+    }
+
+    @Test
+    @DisplayName("'markDelivered' should record the listener and the rows should go with the event")
+    void markDelivered_DeletedWithEvent() {
+        // given
+        OutboxEvent event = outboxEventRepository.save(createEvent());
+
+        // when
+        transactionTemplate.executeWithoutResult(status ->
+                outboxDeliveryRepository.markDelivered(List.of(event.getId()), "listener"));
+
+        // then
+        assertThat(outboxDeliveryRepository.findAllByIdEventIdIn(List.of(event.getId())).size(), equalTo(1));
+        outboxEventRepository.deleteAllByIdInBatch(List.of(event.getId()));
+        assertThat(outboxDeliveryRepository.count(), equalTo(0L));
+    }
+
+    private OutboxEvent createEvent() {
+        return OutboxEvent.builder()
+                .aggregateType(AggregateType.BOOKING)
+                .aggregateId(1L)
+                .eventType(EventType.BOOKING_CREATED)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,238 @@
+package ru.practicum.shareit.stats.reconcile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.duration.BookingDurationBound;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.stats.repository.ItemMonthlyRenterRepository;
+import ru.practicum.shareit.stats.repository.ItemMonthlyStatsRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ItemStatsReconciler tests")
+class ItemStatsReconcilerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingDurationBound bookingDurationBound;
+
+    @Autowired
+    private ItemMonthlyStatsRepository itemMonthlyStatsRepository;
+
+    @Autowired
+    private ItemMonthlyRenterRepository itemMonthlyRenterRepository;
+
+    private ItemStatsReconciler reconciler;
+    private User owner;
+    private User booker;
+    private Item item;
+    private YearMonth month;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new ItemStatsReconciler(bookingRepository, itemRepository, bookingDurationBound,
+                itemMonthlyStatsRepository, itemMonthlyRenterRepository, entityManager, transactionTemplate, 1, 3, 500);
+        owner = userRepository.save(User.builder().name("Owner").email("stats-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("stats-booker@mail.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Tent")
+                .description("Four person tent")
+                .available(true)
+                .owner(owner)
+                .build());
+        month = YearMonth.now().plusMonths(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemMonthlyRenterRepository.deleteAll();
+        itemMonthlyStatsRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("approvals should update the monthly statistics, split at the month boundary")
+    void approve_UpdatesStats() throws Exception {
+        // given
+        Long firstId = addBooking(month.atDay(10).atStartOfDay(), month.atDay(12).atStartOfDay());
+        Long secondId = addBooking(month.atEndOfMonth().atTime(12, 0), month.plusMonths(1).atDay(2).atTime(12, 0));
+        addBooking(month.atDay(20).atStartOfDay(), month.atDay(21).atStartOfDay());
+
+        // when
+        approve(firstId);
+        approve(secondId);
+
+        // then
+        double expectedUtilization = Math.round(2.5 * 1000 / month.lengthOfMonth()) / 10.0;
+        mvc.perform(get("/stats/items")
+                        .param("from", month.toString())
+                        .param("to", month.plusMonths(1).toString())
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].itemName").value("Tent"))
+                .andExpect(jsonPath("$[0].month").value(month.toString()))
+                .andExpect(jsonPath("$[0].bookedDays").value(2.5))
+                .andExpect(jsonPath("$[0].utilization").value(expectedUtilization))
+                .andExpect(jsonPath("$[0].bookings").value(2))
+                .andExpect(jsonPath("$[0].renters").value(1))
+                .andExpect(jsonPath("$[1].month").value(month.plusMonths(1).toString()))
+                .andExpect(jsonPath("$[1].bookedDays").value(1.5))
+                .andExpect(jsonPath("$[1].bookings").value(1));
+    }
+
+    @Test
+    @DisplayName("'reconcile' should rebuild the statistics from approved bookings")
+    void reconcile_RebuildsStats() throws Exception {
+        // given
+        approve(addBooking(month.atDay(10).atStartOfDay(), month.atDay(12).atStartOfDay()));
+        bookingRepository.save(Booking.builder()
+                .start(month.atDay(15).atStartOfDay())
+                .end(month.atDay(16).atStartOfDay())
+                .item(item)
+                .booker(owner)
+                .status(BookingStatus.APPROVED)
+                .build());
+        addBooking(month.atDay(20).atStartOfDay(), month.atDay(21).atStartOfDay());
+
+        // when
+        int rows = reconciler.reconcile(YearMonth.now());
+
+        // then
+        assertThat(rows, equalTo(1));
+        mvc.perform(get("/stats/items")
+                        .param("from", month.toString())
+                        .param("to", month.toString())
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bookedDays").value(3.0))
+                .andExpect(jsonPath("$[0].bookings").value(2))
+                .andExpect(jsonPath("$[0].renters").value(2));
+        assertThat(itemMonthlyRenterRepository.count(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("an approval during 'reconcile' should wait for the item lock and update the rebuilt statistics")
+    void reconcile_WithConcurrentApproval() throws Exception {
+        // given
+        approve(addBooking(month.atDay(10).atStartOfDay(), month.atDay(12).atStartOfDay()));
+        Long waitingId = addBooking(month.atDay(20).atStartOfDay(), month.atDay(21).atStartOfDay());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<Integer>> approval = new AtomicReference<>();
+        BookingRepository interleavingRepository = mock(BookingRepository.class,
+                AdditionalAnswers.delegatesTo(bookingRepository));
+
+        // The approval starts after the reconciler has deleted the item's rows and before it reads the bookings
+        doAnswer(invocation -> {
+            assertThat(approval.get(), nullValue());
+            approval.set(executor.submit(() -> mvc.perform(patch("/bookings/{bookingId}", waitingId)
+                            .param("approved", "true")
+                            .header(OWNER_ID_HEADER, owner.getId()))
+                    .andReturn()
+                    .getResponse()
+                    .getStatus()));
+            Thread.sleep(200);
+            assertThat(approval.get().isDone(), equalTo(false));
+            return bookingRepository.streamPeriodsByStatusAndItemIdIn(invocation.getArgument(0),
+                    invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3),
+                    invocation.getArgument(4));
+        }).when(interleavingRepository).streamPeriodsByStatusAndItemIdIn(any(), anyCollection(), any(), any(), any());
+
+        ItemStatsReconciler interleavingReconciler = new ItemStatsReconciler(interleavingRepository, itemRepository,
+                bookingDurationBound, itemMonthlyStatsRepository, itemMonthlyRenterRepository, entityManager,
+                transactionTemplate, 1, 3, 500);
+
+        // when
+        int rows = interleavingReconciler.reconcile(YearMonth.now());
+        int approvalStatus = approval.get().get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(rows, equalTo(1));
+        assertThat(approvalStatus, equalTo(200));
+        mvc.perform(get("/stats/items")
+                        .param("from", month.toString())
+                        .param("to", month.toString())
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bookedDays").value(3.0))
+                .andExpect(jsonPath("$[0].bookings").value(2))
+                .andExpect(jsonPath("$[0].renters").value(1));
+        assertThat(itemMonthlyRenterRepository.count(), equalTo(1L));
+    }
+
+    private Long addBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build()).getId();
+    }
+
+    private void approve(Long bookingId) throws Exception {
+        mvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .param("approved", "true")
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+    }
+}
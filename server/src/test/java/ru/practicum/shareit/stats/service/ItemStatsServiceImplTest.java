@@ -0,0 +1,145 @@
+package ru.practicum.shareit.stats.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.stats.model.entity.ItemMonthKey;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyRenter;
+import ru.practicum.shareit.stats.model.entity.ItemMonthlyStats;
+import ru.practicum.shareit.stats.repository.ItemMonthlyRenterRepository;
+import ru.practicum.shareit.stats.repository.ItemMonthlyStatsRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ItemStatsService tests")
+@ExtendWith(MockitoExtension.class)
+class ItemStatsServiceImplTest {
+
+    @Mock
+    private ItemMonthlyStatsRepository itemMonthlyStatsRepository;
+
+    @Mock
+    private ItemMonthlyRenterRepository itemMonthlyRenterRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ItemStatsServiceImpl itemStatsService;
+
+    @Test
+    @DisplayName("'recordApproved' should add the booking to every month it touches")
+    void recordApproved_SplitsByMonth() {
+        // given
+        Booking booking = createBooking(LocalDateTime.of(2026, 1, 31, 12, 0), LocalDateTime.of(2026, 2, 2, 0, 0));
+        ItemMonthlyStats january = ItemMonthlyStats.builder()
+                .id(new ItemMonthKey(1L, LocalDate.of(2026, 1, 1)))
+                .bookedMinutes(60)
+                .bookingsCount(1)
+                .rentersCount(1)
+                .build();
+        when(itemMonthlyStatsRepository.findById(january.getId()))
+                .thenReturn(Optional.of(january));
+        when(itemMonthlyStatsRepository.findById(new ItemMonthKey(1L, LocalDate.of(2026, 2, 1))))
+                .thenReturn(Optional.empty());
+        when(itemMonthlyRenterRepository.existsById(new ItemMonthlyRenter.Key(1L, LocalDate.of(2026, 1, 1), 2L)))
+                .thenReturn(true);
+        ArgumentCaptor<Object> persisted = ArgumentCaptor.forClass(Object.class);
+
+        // when
+        itemStatsService.recordApproved(booking);
+
+        // then
+        verify(entityManager, times(2)).persist(persisted.capture());
+        ItemMonthlyStats february = (ItemMonthlyStats) persisted.getAllValues().get(1);
+        assertThat(january.getBookedMinutes(), equalTo(60L + 12 * 60));
+        assertThat(january.getBookingsCount(), equalTo(2));
+        assertThat(january.getRentersCount(), equalTo(1));
+        assertThat(february.getBookedMinutes(), equalTo(24L * 60));
+        assertThat(february.getBookingsCount(), equalTo(1));
+        assertThat(february.getRentersCount(), equalTo(1));
+        assertThat(((ItemMonthlyRenter) persisted.getAllValues().get(0)).getId().getBookerId(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("'getByOwnerId' should read the last twelve months by default")
+    void getByOwnerId_DefaultMonths() {
+        // given
+        YearMonth now = YearMonth.now();
+        when(userRepository.existsById(1L))
+                .thenReturn(true);
+        when(itemMonthlyStatsRepository.findAllByOwnerId(1L, now.minusMonths(11).atDay(1), now.atDay(1)))
+                .thenReturn(List.of());
+
+        // when
+        itemStatsService.getByOwnerId(1L, null, null);
+
+        // then
+        verify(itemMonthlyStatsRepository).findAllByOwnerId(1L, now.minusMonths(11).atDay(1), now.atDay(1));
+    }
+
+    @Test
+    @DisplayName("'getByOwnerId' should throw exception when the months are reversed")
+    void getByOwnerId_ReversedMonths() {
+        // given
+        when(userRepository.existsById(1L))
+                .thenReturn(true);
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                itemStatsService.getByOwnerId(1L, YearMonth.of(2026, 3), YearMonth.of(2026, 1)));
+
+        // then
+        assertEquals("The first month must not be after the last one.", exception.getMessage());
+        verifyNoInteractions(itemMonthlyStatsRepository);
+    }
+
+    @Test
+    @DisplayName("'getByOwnerId' should throw exception when user not found")
+    void getByOwnerId_UserNotFound() {
+        // given
+        when(userRepository.existsById(any()))
+                .thenReturn(false);
+
+        // when
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class, () ->
+                itemStatsService.getByOwnerId(1L, null, null));
+
+        // then
+        assertEquals("User with ID: 1 not found.", exception.getMessage());
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(3L)
+                .start(start)
+                .end(end)
+                .item(Item.builder().id(1L).build())
+                .booker(User.builder().id(2L).build())
+                .build();
+    }
+}
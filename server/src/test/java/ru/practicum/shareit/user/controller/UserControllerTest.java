@@ -11,13 +11,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.util.multiget.MultiGetResponseDto;
 
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -82,18 +87,43 @@ class UserControllerTest {
     }
 
     @Test
-    @DisplayName("'getAll' should return all users successfully")
+    @DisplayName("'getAll' should stream all users as JSON")
+    void getAllUsers_Streamed() throws Exception {
+        // given
+        User user1 = createUser1();
+        List<User> users = List.of(user1);
+
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(0);
+            writer.write(objectMapper.writeValueAsString(UserMapper.toUserDto(users)));
+            writer.flush();
+            return 1L;
+        }).when(userService).streamAll(any());
+
+        // when
+        mvc.perform(get("/users"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id", is(user1.getId()), Long.class))
+                .andExpect(jsonPath("$[0].email", is(user1.getEmail())));
+    }
+
+    @Test
+    @DisplayName("'getPage' should return the page of users after the given ID")
     void getAllUsers_Success() throws Exception {
         // given
         User user1 = createUser1();
         User user2 = createUser2();
         List<User> users = List.of(user1, user2);
 
-        when(userService.getAll())
+        when(userService.getAll(0L, 2))
                 .thenReturn(UserMapper.toUserDto(users));
 
         // when
-        mvc.perform(get("/users"))
+        mvc.perform(get("/users")
+                        .param("afterId", "0")
+                        .param("size", "2"))
                 // then
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id", is(user1.getId()), Long.class))
@@ -104,6 +134,44 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].email", is(user2.getEmail())));
     }
 
+    @Test
+    @DisplayName("'getPage' should return a default sized page when only afterId is given")
+    void getAllUsers_AfterIdWithoutSize() throws Exception {
+        // given
+        User user2 = createUser2();
+
+        when(userService.getAll(1L, 10))
+                .thenReturn(UserMapper.toUserDto(List.of(user2)));
+
+        // when
+        mvc.perform(get("/users")
+                        .param("afterId", "1"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(user2.getId()), Long.class));
+        verify(userService, never()).streamAll(any());
+    }
+
+    @Test
+    @DisplayName("'getByIds' should return found users and missing IDs")
+    void getUsersByIds_Success() throws Exception {
+        // given
+        User user1 = createUser1();
+        List<Long> ids = List.of(user1.getId(), 99L);
+
+        when(userService.getByIds(ids))
+                .thenReturn(new MultiGetResponseDto<>(List.of(UserMapper.toUserDto(user1)), List.of(99L)));
+
+        // when
+        mvc.perform(get("/users")
+                        .param("ids", user1.getId() + ",99"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id", is(user1.getId()), Long.class))
+                .andExpect(jsonPath("$.found[0].name", is(user1.getName())))
+                .andExpect(jsonPath("$.missingIds[0]", is(99L), Long.class));
+    }
+
     @Test
     @DisplayName("'getById' should return user by ID successfully")
     void getUserById_Success() throws Exception {
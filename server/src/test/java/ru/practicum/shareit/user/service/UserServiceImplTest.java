@@ -1,19 +1,26 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.dto.UserDto;
 import ru.practicum.shareit.user.model.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.io.StringWriter;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -28,6 +35,12 @@ class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     UserServiceImpl userService;
 
@@ -121,21 +134,60 @@ class UserServiceImplTest {
     }
 
     @Test
-    @DisplayName("'getAll' should return all users successfully")
+    @DisplayName("'getAll' should return the page of users after the given ID")
     void getAllUsers_Success() {
         // given
         User user1 = createUser1();
         User user2 = createUser2();
         List<User> expectedUsers = List.of(user1, user2);
-        when(userRepository.findAll())
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
                 .thenReturn(expectedUsers);
 
         // when
-        List<UserDto> actualUsers = userService.getAll();
+        List<UserDto> actualUsers = userService.getAll(0L, 2);
 
         // then
         assertNotNull(actualUsers);
         assertThat(actualUsers.size(), equalTo(expectedUsers.size()));
+        assertThat(actualUsers.get(1).getId(), equalTo(user2.getId()));
+    }
+
+    @Test
+    @DisplayName("'streamAll' should write all users as one JSON array")
+    void streamAllUsers_Success() throws Exception {
+        // given
+        User user1 = createUser1();
+        User user2 = createUser2();
+        StringWriter writer = new StringWriter();
+        when(userRepository.streamAll())
+                .thenReturn(Stream.of(user1, user2));
+
+        // when
+        long count = userService.streamAll(writer);
+
+        // then
+        List<UserDto> actualUsers = objectMapper.readValue(writer.toString(), new TypeReference<>() {
+        });
+        assertThat(count, equalTo(2L));
+        assertThat(actualUsers.size(), equalTo(2));
+        assertThat(actualUsers.get(0).getEmail(), equalTo(user1.getEmail()));
+        assertThat(actualUsers.get(1).getEmail(), equalTo(user2.getEmail()));
+    }
+
+    @Test
+    @DisplayName("'streamAll' should write an empty array when there are no users")
+    void streamAllUsers_Empty() throws Exception {
+        // given
+        StringWriter writer = new StringWriter();
+        when(userRepository.streamAll())
+                .thenReturn(Stream.empty());
+
+        // when
+        long count = userService.streamAll(writer);
+
+        // then
+        assertThat(count, equalTo(0L));
+        assertThat(writer.toString(), equalTo("[]"));
     }
 
     @Test
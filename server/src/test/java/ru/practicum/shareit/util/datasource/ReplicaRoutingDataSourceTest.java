@@ -0,0 +1,114 @@
+package ru.practicum.shareit.util.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReplicaRoutingDataSource tests")
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection connection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(connection);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica1);
+        replicas.put("replica-1", replica2);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("read-write transactions should use the primary")
+    void readWrite_Primary() {
+        assertThat(routingDataSource.currentTarget(), equalTo(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    @Test
+    @DisplayName("read-only transactions should use the primary until a replica has been checked")
+    void readOnly_PrimaryBeforeHealthCheck() {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when
+        String beforeCheck = routingDataSource.currentTarget();
+        routingDataSource.setHealthy("replica-1", true);
+        String afterCheck = routingDataSource.currentTarget();
+
+        // then
+        assertThat(beforeCheck, equalTo(ReplicaRoutingDataSource.PRIMARY));
+        assertThat(afterCheck, equalTo("replica-1"));
+    }
+
+    @Test
+    @DisplayName("read-only transactions should alternate between replicas")
+    void readOnly_RoundRobin() {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        setAllHealthy();
+
+        // when
+        String first = routingDataSource.currentTarget();
+        String second = routingDataSource.currentTarget();
+        String third = routingDataSource.currentTarget();
+
+        // then
+        assertThat(first, equalTo("replica-0"));
+        assertThat(second, equalTo("replica-1"));
+        assertThat(third, equalTo("replica-0"));
+    }
+
+    @Test
+    @DisplayName("unhealthy replicas should be skipped and the primary used when none is left")
+    void readOnly_SkipsUnhealthy() {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        setAllHealthy();
+        routingDataSource.setHealthy("replica-0", false);
+
+        // when
+        String withOneReplica = routingDataSource.currentTarget();
+        routingDataSource.setHealthy("replica-1", false);
+        String withoutReplicas = routingDataSource.currentTarget();
+
+        // then
+        assertThat(withOneReplica, equalTo("replica-1"));
+        assertThat(withoutReplicas, equalTo(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    private void setAllHealthy() {
+        routingDataSource.getReplicas().keySet().forEach(replica -> routingDataSource.setHealthy(replica, true));
+    }
+}
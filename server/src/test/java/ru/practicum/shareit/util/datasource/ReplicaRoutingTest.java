@@ -0,0 +1,154 @@
+package ru.practicum.shareit.util.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.idempotency.enums.IdempotencyState;
+import ru.practicum.shareit.idempotency.model.entity.IdempotentResponse;
+import ru.practicum.shareit.idempotency.repository.IdempotentResponseRepository;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+import ru.practicum.shareit.user.model.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replicas[0].url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replicas[0].username=test",
+        "shareit.datasource.replicas[0].password=test",
+        "shareit.datasource.replica-lag-query=SELECT lag_seconds FROM replica_lag",
+        "shareit.datasource.health-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@DisplayName("Replica routing tests")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaHealthChecker replicaHealthChecker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource replicaDataSource = dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicas().get("replica-0");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replica_lag (lag_seconds INT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replicaHealthChecker.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        idempotentResponseRepository.deleteAll();
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("writes should go to the primary and reads to the replica")
+    void readOnlyTransactions_UseReplica() throws Exception {
+        // given
+        Long userId = createUser();
+
+        // when
+        mvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isNotFound());
+        replica.update("INSERT INTO users (id, name, email) VALUES (?, 'Replica copy', 'routing@mail.com')", userId);
+
+        // then
+        mvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica copy"));
+    }
+
+    @Test
+    @DisplayName("reads should fall back to the primary when the replica lags behind")
+    void laggingReplica_FallsBackToPrimary() throws Exception {
+        // given
+        Long userId = createUser();
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+
+        // when
+        replicaHealthChecker.check();
+
+        // then
+        mvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Primary"));
+    }
+
+    @Test
+    @DisplayName("a key that is already reserved should be read from the primary, the replica may not have it yet")
+    void reserveConflict_ReadsPrimary() {
+        // given
+        idempotentResponseRepository.insert(IdempotentResponse.builder()
+                .requestKey("1:/users:routing")
+                .requestHash("hash")
+                .state(IdempotencyState.PENDING)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build());
+
+        // when
+        Optional<IdempotentResponse> actual = idempotencyService.reserve("1:/users:routing", "hash");
+
+        // then
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getState(), equalTo(IdempotencyState.PENDING));
+    }
+
+    private Long createUser() throws Exception {
+        UserDto userDto = UserDto.builder()
+                .name("Primary")
+                .email("routing@mail.com")
+                .build();
+        String response = mvc.perform(post("/users")
+                        .content(objectMapper.writeValueAsString(userDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, UserDto.class).getId();
+    }
+}
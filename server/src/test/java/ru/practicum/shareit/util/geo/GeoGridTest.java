@@ -0,0 +1,78 @@
+package ru.practicum.shareit.util.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("GeoGrid tests")
+public class GeoGridTest {
+
+    @Test
+    @DisplayName("'distanceKm' should return the great-circle distance")
+    public void distanceKm() {
+        // Moscow - Saint Petersburg
+        double distance = GeoGrid.distanceKm(55.7558, 37.6173, 59.9343, 30.3351);
+
+        assertEquals(634, distance, 2);
+    }
+
+    @Test
+    @DisplayName("'cellsWithin' should cover every point inside the radius")
+    public void cellsWithin_CoversCircle() {
+        double latitude = 55.7558;
+        double longitude = 37.6173;
+        double radius = 20;
+        List<Long> cells = GeoGrid.cellsWithin(latitude, longitude, radius);
+
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            double angle = Math.toRadians(bearing);
+            double pointLatitude = latitude + Math.cos(angle) * radius * 0.99 / 111.195;
+            double pointLongitude = longitude + Math.sin(angle) * radius * 0.99
+                    / (111.195 * Math.cos(Math.toRadians(pointLatitude)));
+
+            assertTrue(GeoGrid.distanceKm(latitude, longitude, pointLatitude, pointLongitude) <= radius);
+            assertTrue(cells.contains(GeoGrid.cell(pointLatitude, pointLongitude)));
+        }
+    }
+
+    @Test
+    @DisplayName("'cellsWithin' should wrap around the antimeridian")
+    public void cellsWithin_Antimeridian() {
+        List<Long> cells = GeoGrid.cellsWithin(65.0, 179.95, 10);
+
+        assertTrue(cells.contains(GeoGrid.cell(65.0, 179.95)));
+        assertTrue(cells.contains(GeoGrid.cell(65.0, -179.95)));
+    }
+
+    @Test
+    @DisplayName("'boxAround' should contain every point inside the radius")
+    public void boxAround_ContainsCircle() {
+        double latitude = 55.7558;
+        double longitude = 37.6173;
+        double radius = 20;
+        GeoGrid.Box box = GeoGrid.boxAround(latitude, longitude, radius);
+
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            double angle = Math.toRadians(bearing);
+            double pointLatitude = latitude + Math.cos(angle) * radius * 0.99 / 111.195;
+            double pointLongitude = longitude + Math.sin(angle) * radius * 0.99
+                    / (111.195 * Math.cos(Math.toRadians(pointLatitude)));
+
+            assertTrue(pointLatitude >= box.getMinLatitude() && pointLatitude <= box.getMaxLatitude());
+            assertTrue(pointLongitude >= box.getMinLongitude() && pointLongitude <= box.getMaxLongitude());
+        }
+    }
+
+    @Test
+    @DisplayName("'boxAround' should span every longitude across the antimeridian")
+    public void boxAround_Antimeridian() {
+        GeoGrid.Box box = GeoGrid.boxAround(65.0, 179.95, 10);
+
+        assertEquals(-180, box.getMinLongitude());
+        assertEquals(180, box.getMaxLongitude());
+    }
+}
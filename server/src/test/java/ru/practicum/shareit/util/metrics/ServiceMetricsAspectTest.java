@@ -0,0 +1,131 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingFilterRepository;
+import ru.practicum.shareit.booking.repository.BookingFilterRepositoryImpl;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ServiceMetricsAspect tests")
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingFilterRepositoryImpl bookingFilterRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingService proxy;
+    private BookingFilterRepository repositoryProxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(bookingService);
+        factory.addInterface(BookingService.class);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        proxy = factory.getProxy();
+
+        AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(bookingFilterRepository);
+        repositoryFactory.addInterface(BookingFilterRepository.class);
+        repositoryFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        repositoryProxy = repositoryFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("should time service calls and tag them with the booking state")
+    void time_WithState() {
+        // given
+        when(bookingService.getByBookerId(1L, "past", null, null, null, 0, 10, null))
+                .thenReturn(List.of());
+
+        // when
+        proxy.getByBookerId(1L, "past", null, null, null, 0, 10, null);
+        proxy.getByBookerId(1L, "past", null, null, null, 0, 10, null);
+
+        // then
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.SERVICE_TIMER)
+                .tag("method", "getByBookerId")
+                .tag("state", "PAST")
+                .tag("exception", "none")
+                .timer();
+        assertThat(timer, notNullValue());
+        assertThat(timer.count(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("should tag failed calls with the exception and rethrow it")
+    void time_Failure() {
+        // given
+        when(bookingService.getById(1L, 99L))
+                .thenThrow(new NoSuchElementException("Booking with ID: 99 not found."));
+
+        // when
+        assertThrows(NoSuchElementException.class, () -> proxy.getById(1L, 99L));
+
+        // then
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.SERVICE_TIMER)
+                .tag("method", "getById")
+                .tag("state", "none")
+                .tag("exception", "NoSuchElementException")
+                .timer();
+        assertThat(timer, notNullValue());
+        assertThat(timer.count(), equalTo(1L));
+    }
+
+    @Test
+    @DisplayName("should time booking filter queries and tag them with the filter state and role")
+    void timeBookingFilter_WithStateAndRole() {
+        // given
+        BookingFilter filter = BookingFilter.builder()
+                .role(BookingRole.OWNER)
+                .userId(1L)
+                .state(BookingState.WAITING)
+                .build();
+        Pageable pageable = Pageable.ofSize(10);
+        when(bookingFilterRepository.findAllByFilter(filter, pageable))
+                .thenReturn(List.of());
+
+        // when
+        repositoryProxy.findAllByFilter(filter, pageable);
+        repositoryProxy.countByFilter(filter);
+
+        // then
+        Timer findTimer = meterRegistry.find(ServiceMetricsAspect.REPOSITORY_TIMER)
+                .tag("method", "findAllByFilter")
+                .tag("state", "WAITING")
+                .tag("role", "OWNER")
+                .tag("exception", "none")
+                .timer();
+        assertThat(findTimer, notNullValue());
+        assertThat(findTimer.count(), equalTo(1L));
+        assertThat(meterRegistry.find(ServiceMetricsAspect.REPOSITORY_TIMER)
+                .tag("method", "countByFilter")
+                .tag("state", "WAITING")
+                .timer(), notNullValue());
+        assertThat(meterRegistry.find(ServiceMetricsAspect.SERVICE_TIMER).timer(), nullValue());
+    }
+}
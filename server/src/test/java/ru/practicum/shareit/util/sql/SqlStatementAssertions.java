@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util.sql;
+
+import lombok.experimental.UtilityClass;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+@UtilityClass
+public class SqlStatementAssertions {
+
+    public SqlStatementStats countStatements(SqlAction action) throws Exception {
+        SqlStatementStats stats;
+        SqlStatementCounter.start();
+
+        try {
+            action.run();
+        } finally {
+            stats = SqlStatementCounter.stop();
+        }
+
+        return stats;
+    }
+
+    public SqlStatementStats assertStatementCount(int expected, SqlAction action) throws Exception {
+        SqlStatementStats stats = countStatements(action);
+
+        if (stats.getCount() != expected) {
+            fail(String.format("Expected %d SQL statements but %d were executed: %s",
+                    expected, stats.getCount(), stats.getMostFrequent(Integer.MAX_VALUE)));
+        }
+
+        return stats;
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+}
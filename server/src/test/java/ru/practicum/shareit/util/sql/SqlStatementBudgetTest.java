@@ -0,0 +1,201 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.entity.Comment;
+import ru.practicum.shareit.item.model.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("SQL statement budget tests")
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("sql-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("sql-booker@mail.com").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /items should run a constant number of statements regardless of item count")
+    void getOwnerItems_ConstantStatements() throws Exception {
+        // given
+        addItems(3);
+        SqlStatementStats threeItems = SqlStatementAssertions.assertStatementCount(5, () ->
+                mvc.perform(get("/items").header(OWNER_ID_HEADER, owner.getId()))
+                        .andExpect(status().isOk()));
+        addItems(3);
+
+        // when
+        SqlStatementStats sixItems = SqlStatementAssertions.assertStatementCount(5, () ->
+                mvc.perform(get("/items").header(OWNER_ID_HEADER, owner.getId()))
+                        .andExpect(status().isOk()));
+
+        // then
+        assertThat(sixItems.countOf("select booking"), equalTo(threeItems.countOf("select booking")));
+        assertThat(sixItems.countOf("select comment"), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("GET /items/{id} for the owner should run a fixed number of statements")
+    void getItemById_FixedStatements() throws Exception {
+        // given
+        addItems(2);
+        Long itemId = itemRepository.findAll().get(0).getId();
+
+        // when
+        SqlStatementAssertions.assertStatementCount(6, () ->
+                mvc.perform(get("/items/{itemId}", itemId).header(OWNER_ID_HEADER, owner.getId()))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("booking listings should load items and bookers in the same query")
+    void getBookings_NoLazyLoads() throws Exception {
+        // given
+        addItems(5);
+
+        // when
+        SqlStatementStats byBooker = SqlStatementAssertions.assertStatementCount(2, () ->
+                mvc.perform(get("/bookings").header(OWNER_ID_HEADER, booker.getId()))
+                        .andExpect(status().isOk()));
+        // the PAST page is not full, so it continues into the archive table
+        SqlStatementStats byOwner = SqlStatementAssertions.assertStatementCount(3, () ->
+                mvc.perform(get("/bookings/owner").param("state", "PAST").header(OWNER_ID_HEADER, owner.getId()))
+                        .andExpect(status().isOk()));
+
+        // then
+        assertThat(byBooker.countOf("select item"), equalTo(0));
+        assertThat(byOwner.countOf("select item"), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("a repeated comment should not look up the booking and the item again")
+    void addComment_CompletedRentalCached() throws Exception {
+        // given
+        addItems(1);
+        Long itemId = itemRepository.findAll().get(0).getId();
+        SqlStatementStats first = SqlStatementAssertions.countStatements(() -> addComment(itemId));
+
+        // when
+        SqlStatementStats second = SqlStatementAssertions.countStatements(() -> addComment(itemId));
+
+        // then
+        assertThat(first.countOf("select booking"), equalTo(1));
+        assertThat(second.countOf("select booking"), equalTo(0));
+        assertThat(second.countOf("select item"), equalTo(0));
+        assertThat(second.getCount(), equalTo(first.getCount() - 2));
+    }
+
+    @Test
+    @DisplayName("statement counts should be published per endpoint")
+    void getBookings_RecordsMetrics() throws Exception {
+        // when
+        mvc.perform(get("/bookings").header(OWNER_ID_HEADER, booker.getId()))
+                .andExpect(status().isOk());
+
+        // then
+        DistributionSummary summary = meterRegistry.find(SqlStatementFilter.STATEMENTS_SUMMARY)
+                .tag("method", "GET")
+                .tag("uri", "/bookings")
+                .summary();
+        assertThat(summary, notNullValue());
+        assertThat(summary.count() > 0, equalTo(true));
+    }
+
+    private void addComment(Long itemId) throws Exception {
+        mvc.perform(post("/items/{itemId}/comment", itemId)
+                        .header(OWNER_ID_HEADER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Works well\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private void addItems(int count) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(3))
+                    .end(now.minusDays(2))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.plusDays(2))
+                    .end(now.plusDays(3))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("Great")
+                    .item(item)
+                    .author(booker)
+                    .created(now)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.RequestHeaderConstants.OWNER_ID_HEADER;
+
+@AutoConfigureMockMvc
+@DisplayName("Tracing tests")
+@SpringBootTest(properties = "shareit.tracing.batch-export=false")
+class TracingTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String PARENT_SPAN_ID = "b7ad6b7169203331";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("tracing-owner@mail.com").build());
+        spanExporter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    @DisplayName("incoming traceparent should be continued through controller, service, repository and SQL spans")
+    void getOwnerBookings_ContinuesTrace() throws Exception {
+        // when
+        mvc.perform(get("/bookings/owner")
+                        .header(OWNER_ID_HEADER, owner.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans, not(empty()));
+        assertThat(spans.stream().map(SpanData::getTraceId).distinct().collect(Collectors.toList()), contains(TRACE_ID));
+
+        SpanData server = findSpan(spans, "GET /bookings/owner");
+        SpanData service = findSpan(spans, "BookingServiceImpl.getByOwnerId");
+        SpanData repository = findSpan(spans, "BookingRepository.findAllByFilter");
+        SpanData sql = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.CLIENT)
+                .filter(span -> span.getParentSpanId().equals(repository.getSpanId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(server.getKind(), equalTo(SpanKind.SERVER));
+        assertThat(server.getParentSpanId(), equalTo(PARENT_SPAN_ID));
+        assertThat(service.getParentSpanId(), equalTo(server.getSpanId()));
+        assertThat(repository.getParentSpanId(), equalTo(service.getSpanId()));
+        assertThat(sql.getName(), equalTo("SQL SELECT"));
+    }
+
+    @Test
+    @DisplayName("request without traceparent should start a new trace")
+    void getOwnerBookings_StartsNewTrace() throws Exception {
+        // when
+        mvc.perform(get("/bookings/owner")
+                        .header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+
+        // then
+        SpanData server = findSpan(spanExporter.getFinishedSpanItems(), "GET /bookings/owner");
+        assertThat(server.getParentSpanContext().isValid(), equalTo(false));
+        assertThat(server.getTraceId(), not(equalTo(TRACE_ID)));
+    }
+
+    private static SpanData findSpan(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(String.format("Span %s not found in %s", name, spans)));
+    }
+
+    @TestConfiguration
+    static class InMemorySpanExporterConfig {
+
+        @Bean
+        public InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}